@@ -0,0 +1,159 @@
+package com.projedata.inventory.benchmarks;
+
+import com.projedata.inventory.dto.ProductMaterialRequest;
+import com.projedata.inventory.dto.ProductMaterialResponse;
+import com.projedata.inventory.dto.ProductRequest;
+import com.projedata.inventory.dto.ProductResponse;
+import com.projedata.inventory.dto.RawMaterialRequest;
+import com.projedata.inventory.dto.RawMaterialResponse;
+import com.projedata.inventory.entity.Product;
+import com.projedata.inventory.entity.ProductRawMaterial;
+import com.projedata.inventory.entity.RawMaterial;
+import com.projedata.inventory.repository.ProductRawMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.PlanningMetrics;
+import com.projedata.inventory.service.ProductMaterialService;
+import com.projedata.inventory.service.ProductService;
+import com.projedata.inventory.service.ProductionPlanModel;
+import com.projedata.inventory.service.RawMaterialService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The batch create endpoints' service work without the database: the real {@code createAll} of products, raw
+ * materials and composition lines over in-memory repositories, so what is measured is the batch validation,
+ * building the entities and mapping them to the responses. Half of the composition lines use a raw material and
+ * half a component product, so both branches of the line mapping are taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBatchBenchmark {
+
+    @Param({"100", "5000"})
+    private int rows;
+
+    private ProductService productService;
+    private RawMaterialService rawMaterialService;
+    private ProductMaterialService productMaterialService;
+
+    private List<ProductRequest> productRequests;
+    private List<RawMaterialRequest> rawMaterialRequests;
+    private List<ProductMaterialRequest> compositionRequests;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = new ArrayList<>(rows);
+        List<RawMaterial> rawMaterials = new ArrayList<>(rows);
+        productRequests = new ArrayList<>(rows);
+        rawMaterialRequests = new ArrayList<>(rows);
+        compositionRequests = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            ProductRequest product = new ProductRequest(
+                "P-%07d".formatted(id), "Product " + id, BigDecimal.valueOf(100 + (id * 7919) % 99_900, 2)
+            );
+            RawMaterial rawMaterial = RawMaterial.builder()
+                .id(id)
+                .code("RM-%07d".formatted(id))
+                .name("Raw material " + id)
+                .stockQuantity(BigDecimal.valueOf(1_000 + (id * 31) % 9_000_000, 3))
+                .build();
+            productRequests.add(product);
+            rawMaterialRequests.add(new RawMaterialRequest(rawMaterial.getCode(), rawMaterial.getName(), rawMaterial.getStockQuantity()));
+            products.add(Product.builder().id(id).code(product.code()).name(product.name()).value(product.value()).build());
+            rawMaterials.add(rawMaterial);
+        }
+        for (long id = 1; id <= rows; id++) {
+            boolean component = id % 2 == 0;
+            compositionRequests.add(new ProductMaterialRequest(
+                id,
+                component ? null : id,
+                component ? id - 1 : null,
+                BigDecimal.valueOf(500 + (id * 13) % 4_500, 3)
+            ));
+        }
+
+        ProductRawMaterialRepository productRawMaterialRepository = InMemoryRepositories.stub(ProductRawMaterialRepository.class, Map.of(
+            "findByProductIdIn", args -> List.of(),
+            "lockComponentGraph", args -> 1,
+            "saveAll", InMemoryRepositories.<ProductRawMaterial>savingAll(ProductRawMaterial::setId),
+            "flush", args -> null,
+            "findProductOnComponentCycle", args -> Optional.empty()
+        ));
+        ProductionPlanModel productionPlanModel = new ProductionPlanModel(
+            InMemoryRepositories.stub(ProductRepository.class, Map.of()),
+            InMemoryRepositories.stub(RawMaterialRepository.class, Map.of()),
+            productRawMaterialRepository,
+            new PlanningMetrics(new SimpleMeterRegistry())
+        );
+        productService = new ProductService(
+            InMemoryRepositories.stub(ProductRepository.class, Map.of(
+                "findExistingCodes", args -> List.of(),
+                "saveAll", InMemoryRepositories.<Product>savingAll(Product::setId),
+                "findAllById", args -> byId(products, args)
+            )),
+            productRawMaterialRepository,
+            productionPlanModel
+        );
+        rawMaterialService = new RawMaterialService(
+            InMemoryRepositories.stub(RawMaterialRepository.class, Map.of(
+                "findExistingCodes", args -> List.of(),
+                "saveAll", InMemoryRepositories.<RawMaterial>savingAll(RawMaterial::setId),
+                "findAllById", args -> byId(rawMaterials, args)
+            )),
+            productRawMaterialRepository,
+            productionPlanModel
+        );
+        productMaterialService = new ProductMaterialService(
+            productRawMaterialRepository,
+            productService,
+            rawMaterialService,
+            productionPlanModel
+        );
+    }
+
+    @Benchmark
+    public List<ProductResponse> products() {
+        return productService.createAll(productRequests);
+    }
+
+    @Benchmark
+    public List<RawMaterialResponse> rawMaterials() {
+        return rawMaterialService.createAll(rawMaterialRequests);
+    }
+
+    @Benchmark
+    public List<ProductMaterialResponse> productMaterials() {
+        return productMaterialService.createAll(compositionRequests);
+    }
+
+    private static <T> List<T> byId(List<T> entities, Object[] args) {
+        List<T> found = new ArrayList<>();
+        for (Object id : (Collection<?>) args[0]) {
+            found.add(entities.get(((Long) id).intValue() - 1));
+        }
+        return found;
+    }
+}
@@ -0,0 +1,53 @@
+package com.projedata.inventory.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories, so the benchmarks run the real services without a
+ * database. Methods are answered by name; any other call fails, so a service that starts issuing a new query
+ * breaks the benchmark instead of silently measuring less work.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static <R> R stub(Class<R> repository, Map<String, Function<Object[], Object>> answers) {
+        Object stub = Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemory" + repository.getSimpleName();
+                };
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer == null) {
+                throw new UnsupportedOperationException(repository.getSimpleName() + "." + method.getName());
+            }
+            return answer.apply(args);
+        });
+        return repository.cast(stub);
+    }
+
+    /**
+     * Answers {@code saveAll} as an insert would: the entities get ids 1..n in order and are returned as a list.
+     * Reusing the ids keeps the planning model's pending change sets bounded across invocations.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Function<Object[], Object> savingAll(BiConsumer<T, Long> idSetter) {
+        return args -> {
+            List<T> saved = new ArrayList<>();
+            for (Object entity : (Iterable<?>) args[0]) {
+                idSetter.accept((T) entity, saved.size() + 1L);
+                saved.add((T) entity);
+            }
+            return saved;
+        };
+    }
+}
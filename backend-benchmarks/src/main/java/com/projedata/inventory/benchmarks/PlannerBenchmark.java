@@ -0,0 +1,148 @@
+package com.projedata.inventory.benchmarks;
+
+import com.projedata.inventory.dto.ProductionSuggestionResponse;
+import com.projedata.inventory.entity.Product;
+import com.projedata.inventory.entity.ProductRawMaterial;
+import com.projedata.inventory.entity.RawMaterial;
+import com.projedata.inventory.repository.ProductRawMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.CompiledPlan;
+import com.projedata.inventory.service.CompiledPlan.CompositionEntry;
+import com.projedata.inventory.service.CompiledPlan.ProductEntry;
+import com.projedata.inventory.service.OptimalPlanner;
+import com.projedata.inventory.service.PlanningMetrics;
+import com.projedata.inventory.service.ProductionPlanModel;
+import com.projedata.inventory.service.ProductionPlanService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Greedy planning on synthetic catalogs: compiling the catalog, the allocation loop alone, and the greedy
+ * suggestions end to end through a real {@link ProductionPlanService}. The service runs over a
+ * {@link ProductionPlanModel} loaded from in-memory repositories, and each invocation reports a write first so the
+ * plan cache misses: the measurement is the model refresh check, the allocation and the mapping, each phase timed
+ * into a {@link SimpleMeterRegistry} as in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PlannerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int compositionLines;
+
+    @Param({"SPARSE", "DENSE", "SHARED_COMPONENTS"})
+    private SyntheticCatalog.Shape shape;
+
+    private SyntheticCatalog catalog;
+    private CompiledPlan plan;
+    private ProductionPlanModel productionPlanModel;
+    private ProductionPlanService productionPlanService;
+
+    @Setup
+    public void setUp() {
+        catalog = SyntheticCatalog.generate(compositionLines, shape);
+        plan = catalog.compile();
+
+        PlanningMetrics planningMetrics = new PlanningMetrics(new SimpleMeterRegistry());
+        productionPlanModel = model(catalog, planningMetrics);
+        productionPlanService = new ProductionPlanService(
+            productionPlanModel,
+            new OptimalPlanner(ForkJoinPool.commonPool(), Duration.ofSeconds(5), Duration.ofSeconds(5)),
+            ForkJoinPool.commonPool(),
+            planningMetrics
+        );
+        productionPlanService.calculateSuggestions();
+    }
+
+    @Benchmark
+    public CompiledPlan compile() {
+        return catalog.compile();
+    }
+
+    @Benchmark
+    public long[] allocateGreedy() {
+        return plan.allocateGreedy(plan.stockVector());
+    }
+
+    @Benchmark
+    public ProductionSuggestionResponse calculateSuggestions() {
+        // an empty report still moves the data version, so the cached plan is stale but the model has nothing to reload
+        productionPlanModel.rawMaterialsChanged(List.of());
+        return productionPlanService.calculateSuggestions();
+    }
+
+    private static ProductionPlanModel model(SyntheticCatalog catalog, PlanningMetrics planningMetrics) {
+        Map<Long, Product> products = new HashMap<>();
+        for (ProductEntry entry : catalog.products()) {
+            products.put(entry.id(), Product.builder()
+                .id(entry.id())
+                .code(entry.code())
+                .name(entry.name())
+                .value(entry.value())
+                .build());
+        }
+        Map<Long, RawMaterial> rawMaterials = new HashMap<>();
+        catalog.stockByRawMaterial().forEach((id, stock) -> rawMaterials.put(id, RawMaterial.builder()
+            .id(id)
+            .code("RM-%07d".formatted(id))
+            .name("Raw material " + id)
+            .stockQuantity(stock)
+            .build()));
+        List<ProductRawMaterial> compositions = catalog.compositions().stream()
+            .map(entry -> composition(entry, products, rawMaterials))
+            .toList();
+        List<Product> byValue = products.values().stream()
+            .sorted(Comparator.comparing(Product::getValue).reversed().thenComparing(Product::getCode))
+            .toList();
+
+        return new ProductionPlanModel(
+            InMemoryRepositories.stub(ProductRepository.class, Map.of(
+                "findAllByOrderByValueDescCodeAsc", args -> byValue
+            )),
+            InMemoryRepositories.stub(RawMaterialRepository.class, Map.of(
+                "findAll", args -> List.copyOf(rawMaterials.values())
+            )),
+            InMemoryRepositories.stub(ProductRawMaterialRepository.class, Map.of(
+                "findByProductIdIn", args -> compositions
+            )),
+            planningMetrics
+        );
+    }
+
+    private static ProductRawMaterial composition(
+        CompositionEntry entry,
+        Map<Long, Product> products,
+        Map<Long, RawMaterial> rawMaterials
+    ) {
+        return ProductRawMaterial.builder()
+            .id(entry.id())
+            .product(products.get(entry.productId()))
+            .rawMaterial(entry.rawMaterialId() == null ? null : rawMaterials.get(entry.rawMaterialId()))
+            .componentProduct(entry.componentProductId() == null ? null : products.get(entry.componentProductId()))
+            .requiredQuantity(entry.requiredQuantity())
+            .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.projedata.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.dto.PlanningStrategy;
+import com.projedata.inventory.dto.ProductionSuggestionItem;
+import com.projedata.inventory.dto.ProductionSuggestionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link ProductionSuggestionResponse} with an {@link ObjectMapper} built like the one
+ * Spring MVC uses, both to a byte array and streamed to an output stream as the message converter does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private ProductionSuggestionResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<ProductionSuggestionItem> suggestionItems = new ArrayList<>(items);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= items; i++) {
+            BigDecimal unitValue = BigDecimal.valueOf(100 + (i * 7919L) % 99_900, 2);
+            long quantity = 1 + (i * 31L) % 500;
+            BigDecimal subtotal = unitValue.multiply(BigDecimal.valueOf(quantity));
+            suggestionItems.add(new ProductionSuggestionItem((long) i, "P-%07d".formatted(i), "Product " + i, unitValue, quantity, subtotal));
+            total = total.add(subtotal);
+        }
+        response = new ProductionSuggestionResponse(List.copyOf(suggestionItems), total, PlanningStrategy.GREEDY, null);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
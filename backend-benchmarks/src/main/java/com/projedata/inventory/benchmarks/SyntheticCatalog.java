@@ -0,0 +1,120 @@
+package com.projedata.inventory.benchmarks;
+
+import com.projedata.inventory.service.CompiledPlan;
+import com.projedata.inventory.service.CompiledPlan.CompositionEntry;
+import com.projedata.inventory.service.CompiledPlan.ProductEntry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded, reproducible catalogs with roughly {@code compositionLines} composition lines in one of three shapes.
+ */
+public record SyntheticCatalog(
+    List<ProductEntry> products,
+    Map<Long, BigDecimal> stockByRawMaterial,
+    List<CompositionEntry> compositions
+) {
+
+    public enum Shape {
+        /** Four lines per product drawn from a large pool: each raw material is shared by about two products. */
+        SPARSE,
+        /** Thirty-two lines per product drawn from 64 raw materials: every product competes for the same stock. */
+        DENSE,
+        /**
+         * Two-level bills of materials: sub-assemblies with eight raw material lines, finished products using two
+         * sub-assemblies and two raw materials, so planning has to explode shared components.
+         */
+        SHARED_COMPONENTS
+    }
+
+    private static final long SEED = 20_240_601L;
+
+    public static SyntheticCatalog generate(int compositionLines, Shape shape) {
+        SplittableRandom random = new SplittableRandom(SEED + shape.ordinal());
+        Builder builder = new Builder(random);
+        switch (shape) {
+            case SPARSE -> {
+                int rawMaterials = Math.max(16, compositionLines / 2);
+                builder.rawMaterials(rawMaterials);
+                for (int i = 0; i < compositionLines / 4; i++) {
+                    builder.product(builder.pickRawMaterials(4, rawMaterials), List.of());
+                }
+            }
+            case DENSE -> {
+                builder.rawMaterials(64);
+                for (int i = 0; i < Math.max(1, compositionLines / 32); i++) {
+                    builder.product(builder.pickRawMaterials(32, 64), List.of());
+                }
+            }
+            case SHARED_COMPONENTS -> {
+                int rawMaterials = Math.max(16, compositionLines / 16);
+                builder.rawMaterials(rawMaterials);
+                List<Long> assemblies = new ArrayList<>();
+                for (int i = 0; i < Math.max(2, compositionLines / 40); i++) {
+                    assemblies.add(builder.product(builder.pickRawMaterials(8, rawMaterials), List.of()));
+                }
+                for (int i = 0; i < compositionLines / 5; i++) {
+                    List<Long> components = List.of(
+                        assemblies.get(random.nextInt(assemblies.size())),
+                        assemblies.get(random.nextInt(assemblies.size()))
+                    );
+                    builder.product(builder.pickRawMaterials(2, rawMaterials), components.stream().distinct().toList());
+                }
+            }
+        }
+        return new SyntheticCatalog(List.copyOf(builder.products), Map.copyOf(builder.stock), List.copyOf(builder.compositions));
+    }
+
+    public CompiledPlan compile() {
+        return CompiledPlan.compile(products, stockByRawMaterial, compositions);
+    }
+
+    private static final class Builder {
+
+        private final SplittableRandom random;
+        private final List<ProductEntry> products = new ArrayList<>();
+        private final Map<Long, BigDecimal> stock = new HashMap<>();
+        private final List<CompositionEntry> compositions = new ArrayList<>();
+
+        private Builder(SplittableRandom random) {
+            this.random = random;
+        }
+
+        void rawMaterials(int count) {
+            for (long id = 1; id <= count; id++) {
+                stock.put(id, BigDecimal.valueOf(random.nextLong(1_000, 10_000_000), 3));
+            }
+        }
+
+        long[] pickRawMaterials(int count, int rawMaterials) {
+            long[] picked = random.longs(1, rawMaterials + 1).distinct().limit(count).toArray();
+            return picked;
+        }
+
+        long product(long[] rawMaterialIds, List<Long> componentProductIds) {
+            long id = products.size() + 1L;
+            products.add(new ProductEntry(
+                id,
+                "P-%07d".formatted(id),
+                "Product " + id,
+                BigDecimal.valueOf(random.nextLong(100, 100_000), 2)
+            ));
+            for (long rawMaterialId : rawMaterialIds) {
+                compositions.add(new CompositionEntry(compositions.size() + 1L, id, rawMaterialId, null, requiredQuantity()));
+            }
+            for (Long componentProductId : componentProductIds) {
+                compositions.add(new CompositionEntry(compositions.size() + 1L, id, null, componentProductId, requiredQuantity()));
+            }
+            return id;
+        }
+
+        private BigDecimal requiredQuantity() {
+            return BigDecimal.valueOf(random.nextLong(500, 5_000), 3);
+        }
+    }
+}
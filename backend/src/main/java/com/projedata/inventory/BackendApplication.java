@@ -2,8 +2,15 @@ package com.projedata.inventory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 
-@SpringBootApplication
+/**
+ * R2DBC only backs the optional reactive read endpoints ({@code ReactiveCatalogService}). Its auto-configuration would
+ * publish a {@code ConnectionFactory} and an R2DBC transaction manager, which make the JDBC DataSource and the JPA
+ * transaction manager back off, so it stays excluded.
+ */
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class BackendApplication {
 
 	public static void main(String[] args) {
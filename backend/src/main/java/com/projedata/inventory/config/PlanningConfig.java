@@ -0,0 +1,17 @@
+package com.projedata.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class PlanningConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool planningPool(@Value("${app.planning.parallelism:0}") int parallelism) {
+        int effectiveParallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(effectiveParallelism);
+    }
+}
@@ -0,0 +1,46 @@
+package com.projedata.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlStatementConfig {
+
+    @Bean
+    public static SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    /**
+     * Wraps the data source before Hibernate, {@code JdbcTemplate} and the transaction managers receive it, so
+     * the statements of both are counted on the same connections.
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingDataSource(SqlStatementCounter counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? counter.countStatements(dataSource) : bean;
+            }
+        };
+    }
+
+    /**
+     * Per-request statement logging; off unless {@code app.sql.statement-log-threshold} is above zero.
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatementLoggingFilter> sqlStatementLoggingFilter(
+        SqlStatementCounter counter,
+        @Value("${app.sql.statement-log-threshold:0}") int threshold
+    ) {
+        FilterRegistrationBean<SqlStatementLoggingFilter> registration =
+            new FilterRegistrationBean<>(new SqlStatementLoggingFilter(counter, threshold));
+        registration.setEnabled(threshold > 0);
+        return registration;
+    }
+}
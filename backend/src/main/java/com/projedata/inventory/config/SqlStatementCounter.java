@@ -0,0 +1,63 @@
+package com.projedata.inventory.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Counts the SQL statements created on the application's JDBC connections, per thread, whether Hibernate or
+ * {@code JdbcTemplate} issues them. The count only grows: callers read {@link #count()} before and after a unit
+ * of work and take the difference, so measurements can nest. A batch is one statement however many rows it
+ * carries, and a {@code COPY} through the PostgreSQL driver API is not counted.
+ */
+public class SqlStatementCounter {
+
+    private static final ThreadLocal<long[]> CREATED = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Statements created so far on the current thread.
+     */
+    public long count() {
+        return CREATED.get()[0];
+    }
+
+    /**
+     * Wraps the data source so that every statement created on its connections is counted.
+     */
+    public DataSource countStatements(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return counting(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return counting(super.getConnection(username, password));
+            }
+        };
+    }
+
+    private static Connection counting(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createStatement", "prepareStatement", "prepareCall" -> CREATED.get()[0]++;
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+            SqlStatementCounter.class.getClassLoader(), new Class<?>[]{Connection.class}, handler
+        );
+    }
+}
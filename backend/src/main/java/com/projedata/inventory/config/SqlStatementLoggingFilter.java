@@ -0,0 +1,41 @@
+package com.projedata.inventory.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Logs requests that issued more SQL statements than the configured threshold, which is
+ * usually the sign of an N+1 query.
+ */
+@Slf4j
+public class SqlStatementLoggingFilter extends OncePerRequestFilter {
+
+    private final SqlStatementCounter counter;
+    private final int threshold;
+
+    public SqlStatementLoggingFilter(SqlStatementCounter counter, int threshold) {
+        this.counter = counter;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        long before = counter.count();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long executed = counter.count() - before;
+            if (executed > threshold) {
+                log.warn("{} {} executed {} SQL statements (threshold {})",
+                    request.getMethod(), request.getRequestURI(), executed, threshold);
+            }
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.projedata.inventory.controller;
 
+import com.projedata.inventory.dto.BuildabilitySort;
+import com.projedata.inventory.dto.CatalogSyncResponse;
+import com.projedata.inventory.dto.CursorPage;
+import com.projedata.inventory.dto.ProductBatchRequest;
+import com.projedata.inventory.dto.ProductBuildabilityItem;
 import com.projedata.inventory.dto.ProductRequest;
 import com.projedata.inventory.dto.ProductResponse;
+import com.projedata.inventory.dto.ProductSyncRequest;
+import com.projedata.inventory.service.CatalogSyncService;
+import com.projedata.inventory.service.ProductBuildabilityService;
 import com.projedata.inventory.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -24,10 +34,55 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogSyncService catalogSyncService;
+    private final ProductBuildabilityService productBuildabilityService;
 
+    /**
+     * Without {@code limit} or {@code after} the whole list is returned. With either, a keyset page is returned
+     * and, when more rows follow, the cursor for the next page in the {@code X-Next-Cursor} header.
+     */
     @GetMapping
-    public List<ProductResponse> findAll() {
-        return productService.findAll();
+    public ResponseEntity<List<ProductResponse>> findAll(
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String after
+    ) {
+        if (limit == null && after == null) {
+            return ResponseEntity.ok(productService.findAll());
+        }
+
+        CursorPage<ProductResponse> page = productService.findPage(limit, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Standalone buildable quantity and limiting raw material of each product, read from the trigger-maintained
+     * summary table and paged in the requested order; the cursor for the next page, when there is one, comes in
+     * the {@code X-Next-Cursor} header.
+     */
+    @GetMapping("/buildability")
+    public ResponseEntity<List<ProductBuildabilityItem>> buildability(
+        @RequestParam(defaultValue = "code") String sort,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String after,
+        @RequestParam(required = false) Long minQuantity,
+        @RequestParam(required = false) Long maxQuantity
+    ) {
+        CursorPage<ProductBuildabilityItem> page = productBuildabilityService.findPage(
+            BuildabilitySort.fromValue(sort),
+            limit,
+            after,
+            minQuantity,
+            maxQuantity
+        );
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     @GetMapping("/{id}")
@@ -41,6 +96,20 @@ public class ProductController {
         return productService.create(request);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ProductResponse> createBatch(@Valid @RequestBody ProductBatchRequest request) {
+        return productService.createAll(request.items());
+    }
+
+    /**
+     * Upserts the full product master by code; only rows whose values differ are written.
+     */
+    @PutMapping("/sync")
+    public CatalogSyncResponse sync(@Valid @RequestBody ProductSyncRequest request) {
+        return catalogSyncService.syncProducts(request.items());
+    }
+
     @PutMapping("/{id}")
     public ProductResponse update(@PathVariable Long id, @Valid @RequestBody ProductRequest request) {
         return productService.update(id, request);
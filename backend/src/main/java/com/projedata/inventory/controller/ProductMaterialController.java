@@ -1,5 +1,6 @@
 package com.projedata.inventory.controller;
 
+import com.projedata.inventory.dto.ProductMaterialBatchRequest;
 import com.projedata.inventory.dto.ProductMaterialRequest;
 import com.projedata.inventory.dto.ProductMaterialResponse;
 import com.projedata.inventory.service.ProductMaterialService;
@@ -37,6 +38,12 @@ public class ProductMaterialController {
         return productMaterialService.create(request);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<ProductMaterialResponse> createBatch(@Valid @RequestBody ProductMaterialBatchRequest request) {
+        return productMaterialService.createAll(request.items());
+    }
+
     @PutMapping("/{id}")
     public ProductMaterialResponse update(@PathVariable Long id, @Valid @RequestBody ProductMaterialRequest request) {
         return productMaterialService.update(id, request);
@@ -1,21 +1,207 @@
 package com.projedata.inventory.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.dto.PlanningStrategy;
+import com.projedata.inventory.dto.ProductionCommitRequest;
+import com.projedata.inventory.dto.ProductionCommitResponse;
+import com.projedata.inventory.dto.ProductionRequirementsRequest;
+import com.projedata.inventory.dto.ProductionRequirementsResponse;
+import com.projedata.inventory.dto.ProductionScenarioRequest;
+import com.projedata.inventory.dto.ProductionScenarioResponse;
 import com.projedata.inventory.dto.ProductionSuggestionResponse;
+import com.projedata.inventory.dto.ProductionSuggestionSummary;
+import com.projedata.inventory.service.ProductionCommitService;
 import com.projedata.inventory.service.ProductionPlanService;
+import com.projedata.inventory.service.ProductionPlanService.SuggestionStream;
+import com.projedata.inventory.service.ProductionRequirementsService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 
 @RestController
 @RequestMapping("/api/production-plan")
 @RequiredArgsConstructor
 public class ProductionPlanController {
 
+    private static final String JSON_TAG = "";
+    private static final String NDJSON_TAG = "-ndjson";
+    private static final String SSE_TAG = "-sse";
+
     private final ProductionPlanService productionPlanService;
+    private final ProductionCommitService productionCommitService;
+    private final ProductionRequirementsService productionRequirementsService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Greedy plans carry a strong ETag derived from the data version, so polling clients get 304 until
+     * a product, raw material or composition changes. Optimal plans depend on the time budget and are not tagged.
+     * The JSON, NDJSON and SSE representations share the URL, so each has its own tag and every response varies
+     * by {@code Accept}: a validator of one representation never revalidates another.
+     */
     @GetMapping("/suggestions")
-    public ProductionSuggestionResponse suggestions() {
-        return productionPlanService.calculateSuggestions();
+    public ResponseEntity<ProductionSuggestionResponse> suggestions(
+        @RequestParam(defaultValue = "greedy") String strategy,
+        @RequestParam(required = false) Long timeBudgetMs,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        PlanningStrategy planningStrategy = PlanningStrategy.fromValue(strategy);
+        if (planningStrategy == PlanningStrategy.OPTIMAL) {
+            return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(productionPlanService.calculateSuggestions(planningStrategy, timeBudget(timeBudgetMs)));
+        }
+
+        String currentETag = suggestionsETag(productionPlanService.currentDataVersion(), JSON_TAG);
+        if (matches(ifNoneMatch, currentETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        ProductionPlanService.VersionedSuggestions suggestions = productionPlanService.greedySuggestions();
+        return ResponseEntity.ok()
+            .eTag(suggestionsETag(suggestions.version(), JSON_TAG))
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(suggestions.response());
+    }
+
+    /**
+     * Streaming variant of {@link #suggestions} for {@code Accept: application/x-ndjson}: one item per line,
+     * written as the planner commits it, and a {@link ProductionSuggestionSummary} as the last line.
+     */
+    @GetMapping(value = "/suggestions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSuggestions(
+        @RequestParam(defaultValue = "greedy") String strategy,
+        @RequestParam(required = false) Long timeBudgetMs,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return stream(strategy, timeBudgetMs, ifNoneMatch, MediaType.APPLICATION_NDJSON, NDJSON_TAG, (out, event, json) -> {
+            out.write(json);
+            out.write('\n');
+        });
+    }
+
+    /**
+     * Server-Sent Events variant of {@link #suggestions}: an {@code item} event per item and a final
+     * {@code summary} event.
+     */
+    @GetMapping(value = "/suggestions", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSuggestionEvents(
+        @RequestParam(defaultValue = "greedy") String strategy,
+        @RequestParam(required = false) Long timeBudgetMs,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return stream(strategy, timeBudgetMs, ifNoneMatch, MediaType.TEXT_EVENT_STREAM, SSE_TAG, (out, event, json) -> {
+            out.write(("event: " + event + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(json);
+            out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    @PostMapping("/scenarios")
+    public ProductionScenarioResponse scenarios(@Valid @RequestBody ProductionScenarioRequest request) {
+        return productionPlanService.evaluateScenarios(request);
+    }
+
+    /**
+     * Consumes the stock for a plan: the items sent, or the current greedy plan when the body is empty.
+     * Answers 409 with the short raw materials when the stock no longer covers it.
+     */
+    @PostMapping("/commit")
+    public ProductionCommitResponse commit(@Valid @RequestBody(required = false) ProductionCommitRequest request) {
+        return productionCommitService.commit(request);
+    }
+
+    /**
+     * Gross raw material requirements of the target quantities, netted against the current stock.
+     */
+    @PostMapping("/requirements")
+    public ProductionRequirementsResponse requirements(@Valid @RequestBody ProductionRequirementsRequest request) {
+        return productionRequirementsService.calculate(request);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(
+        String strategy,
+        Long timeBudgetMs,
+        String ifNoneMatch,
+        MediaType mediaType,
+        String representation,
+        RecordWriter recordWriter
+    ) {
+        PlanningStrategy planningStrategy = PlanningStrategy.fromValue(strategy);
+        if (planningStrategy == PlanningStrategy.GREEDY) {
+            String currentETag = suggestionsETag(productionPlanService.currentDataVersion(), representation);
+            if (matches(ifNoneMatch, currentETag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+
+        SuggestionStream suggestions = productionPlanService.suggestionStream(planningStrategy, timeBudget(timeBudgetMs));
+        StreamingResponseBody body = out -> {
+            boolean[] firstItem = {true};
+            try {
+                ProductionSuggestionSummary summary = suggestions.writeTo(item -> {
+                    try {
+                        recordWriter.write(out, "item", objectMapper.writeValueAsBytes(item));
+                        if (firstItem[0]) {
+                            firstItem[0] = false;
+                            out.flush();
+                        }
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                recordWriter.write(out, "summary", objectMapper.writeValueAsBytes(summary));
+                out.flush();
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(mediaType).varyBy(HttpHeaders.ACCEPT);
+        if (suggestions.version() != null) {
+            response.eTag(suggestionsETag(suggestions.version(), representation));
+        }
+        return response.body(body);
+    }
+
+    private Duration timeBudget(Long timeBudgetMs) {
+        return timeBudgetMs != null ? Duration.ofMillis(timeBudgetMs) : null;
+    }
+
+    private String suggestionsETag(String dataVersion, String representation) {
+        return "\"plan-" + dataVersion + representation + "\"";
+    }
+
+    private boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+            .map(String::trim)
+            .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+            .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+
+        void write(OutputStream out, String event, byte[] json) throws IOException;
     }
 }
@@ -1,11 +1,28 @@
 package com.projedata.inventory.controller;
 
+import com.projedata.inventory.dto.CatalogSyncResponse;
+import com.projedata.inventory.dto.CursorPage;
+import com.projedata.inventory.dto.RawMaterialBatchRequest;
 import com.projedata.inventory.dto.RawMaterialRequest;
 import com.projedata.inventory.dto.RawMaterialResponse;
+import com.projedata.inventory.dto.RawMaterialSyncRequest;
+import com.projedata.inventory.dto.RawMaterialUsageResponse;
+import com.projedata.inventory.dto.StockMovementBatchRequest;
+import com.projedata.inventory.dto.StockMovementBatchResponse;
+import com.projedata.inventory.dto.StockMovementRequest;
+import com.projedata.inventory.dto.StockImpactRequest;
+import com.projedata.inventory.dto.StockImpactResponse;
+import com.projedata.inventory.dto.StockMovementResponse;
+import com.projedata.inventory.dto.StockSnapshotResponse;
+import com.projedata.inventory.service.CatalogSyncService;
 import com.projedata.inventory.service.RawMaterialService;
+import com.projedata.inventory.service.RawMaterialUsageService;
+import com.projedata.inventory.service.StockMovementService;
+import com.projedata.inventory.service.StockSnapshotService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,9 +30,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -24,10 +43,30 @@ import java.util.List;
 public class RawMaterialController {
 
     private final RawMaterialService rawMaterialService;
+    private final StockSnapshotService stockSnapshotService;
+    private final StockMovementService stockMovementService;
+    private final CatalogSyncService catalogSyncService;
+    private final RawMaterialUsageService rawMaterialUsageService;
 
+    /**
+     * Without {@code limit} or {@code after} the whole list is returned. With either, a keyset page is returned
+     * and, when more rows follow, the cursor for the next page in the {@code X-Next-Cursor} header.
+     */
     @GetMapping
-    public List<RawMaterialResponse> findAll() {
-        return rawMaterialService.findAll();
+    public ResponseEntity<List<RawMaterialResponse>> findAll(
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) String after
+    ) {
+        if (limit == null && after == null) {
+            return ResponseEntity.ok(rawMaterialService.findAll());
+        }
+
+        CursorPage<RawMaterialResponse> page = rawMaterialService.findPage(limit, after);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     @GetMapping("/{id}")
@@ -35,12 +74,66 @@ public class RawMaterialController {
         return rawMaterialService.findById(id);
     }
 
+    /**
+     * Products that consume the raw material, directly or through component products, in planning order.
+     */
+    @GetMapping("/{id}/where-used")
+    public RawMaterialUsageResponse whereUsed(@PathVariable Long id) {
+        return rawMaterialUsageService.whereUsed(id);
+    }
+
+    /**
+     * What-if for a stock change: standalone buildable quantities, before and after, of the products that use it.
+     * Nothing is written.
+     */
+    @PostMapping("/{id}/impact")
+    public StockImpactResponse impact(@PathVariable Long id, @Valid @RequestBody StockImpactRequest request) {
+        return rawMaterialUsageService.impact(id, request);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public RawMaterialResponse create(@Valid @RequestBody RawMaterialRequest request) {
         return rawMaterialService.create(request);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<RawMaterialResponse> createBatch(@Valid @RequestBody RawMaterialBatchRequest request) {
+        return rawMaterialService.createAll(request.items());
+    }
+
+    /**
+     * Applies a full stock count streamed as CSV ({@code code,stock_quantity}); see {@link StockSnapshotService}.
+     */
+    @PostMapping(value = "/stock-snapshot", consumes = "text/csv")
+    public StockSnapshotResponse loadStockSnapshot(
+        @RequestParam(defaultValue = "true") boolean header,
+        InputStream csv
+    ) {
+        return stockSnapshotService.load(csv, header);
+    }
+
+    @PostMapping("/{id}/movements")
+    @ResponseStatus(HttpStatus.CREATED)
+    public StockMovementResponse recordMovement(@PathVariable Long id, @Valid @RequestBody StockMovementRequest request) {
+        return stockMovementService.record(id, request);
+    }
+
+    @PostMapping("/movements/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public StockMovementBatchResponse recordMovements(@Valid @RequestBody StockMovementBatchRequest request) {
+        return stockMovementService.recordAll(request.items());
+    }
+
+    /**
+     * Upserts the full raw material master by code; only rows whose values differ are written.
+     */
+    @PutMapping("/sync")
+    public CatalogSyncResponse sync(@Valid @RequestBody RawMaterialSyncRequest request) {
+        return catalogSyncService.syncRawMaterials(request.items());
+    }
+
     @PutMapping("/{id}")
     public RawMaterialResponse update(@PathVariable Long id, @Valid @RequestBody RawMaterialRequest request) {
         return rawMaterialService.update(id, request);
@@ -0,0 +1,99 @@
+package com.projedata.inventory.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.dto.ProductMaterialResponse;
+import com.projedata.inventory.dto.ProductResponse;
+import com.projedata.inventory.dto.ProductionSuggestionResponse;
+import com.projedata.inventory.dto.RawMaterialResponse;
+import com.projedata.inventory.service.ProductionPlanService;
+import com.projedata.inventory.service.ReactiveCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive twins of the read-heavy endpoints, enabled with {@code app.reactive.enabled=true}. By default the rows
+ * are collected into a JSON array. With {@code Accept: application/x-ndjson} they are written one per line as they
+ * arrive, in chunks of one database fetch: Spring MVC hands every stream element to its async executor and flushes
+ * it, so emitting single rows would cost a task and a flush per row, and the next fetch is only requested once the
+ * previous chunk was written. Writes keep going through the JPA services.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReadController {
+
+    private final ReactiveCatalogService reactiveCatalogService;
+    private final ProductionPlanService productionPlanService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/products")
+    public Flux<ProductResponse> products() {
+        return reactiveCatalogService.findProducts();
+    }
+
+    @GetMapping(value = "/products", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> streamProducts() {
+        return ndjson(reactiveCatalogService.findProducts());
+    }
+
+    @GetMapping("/raw-materials")
+    public Flux<RawMaterialResponse> rawMaterials() {
+        return reactiveCatalogService.findRawMaterials();
+    }
+
+    @GetMapping(value = "/raw-materials", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> streamRawMaterials() {
+        return ndjson(reactiveCatalogService.findRawMaterials());
+    }
+
+    @GetMapping("/product-materials")
+    public Flux<ProductMaterialResponse> productMaterials(@RequestParam Long productId) {
+        return reactiveCatalogService.findProductMaterials(productId);
+    }
+
+    @GetMapping(value = "/product-materials", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<String> streamProductMaterials(@RequestParam Long productId) {
+        return ndjson(reactiveCatalogService.findProductMaterials(productId));
+    }
+
+    /**
+     * Greedy plan from the resident model. Refreshing the model may load from JPA, so it runs on Reactor's
+     * bounded elastic scheduler instead of a request thread.
+     */
+    @GetMapping("/production-plan/suggestions")
+    public Mono<ProductionSuggestionResponse> suggestions() {
+        return Mono.fromCallable(() -> productionPlanService.greedySuggestions().response())
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Serializes the rows into newline-separated chunks; the stream writer adds the newline after each chunk.
+     */
+    private <T> Flux<String> ndjson(Flux<T> rows) {
+        return rows.buffer(ReactiveCatalogService.FETCH_SIZE).handle((chunk, sink) -> {
+            StringBuilder lines = new StringBuilder();
+            try {
+                for (T row : chunk) {
+                    if (!lines.isEmpty()) {
+                        lines.append('\n');
+                    }
+                    lines.append(objectMapper.writeValueAsString(row));
+                }
+            } catch (JsonProcessingException ex) {
+                sink.error(ex);
+                return;
+            }
+            sink.next(lines.toString());
+        });
+    }
+}
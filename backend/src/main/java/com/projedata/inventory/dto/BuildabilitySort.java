@@ -0,0 +1,29 @@
+package com.projedata.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.projedata.inventory.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public enum BuildabilitySort {
+    CODE,
+    QUANTITY,
+    BOTTLENECK;
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static BuildabilitySort fromValue(String value) {
+        return Arrays.stream(values())
+            .filter(sort -> sort.value().equalsIgnoreCase(value.trim()))
+            .findFirst()
+            .orElseThrow(() -> new BadRequestException("Unknown buildability sort '%s'; expected one of: %s".formatted(
+                value,
+                Arrays.stream(values()).map(BuildabilitySort::value).collect(Collectors.joining(", "))
+            )));
+    }
+}
@@ -0,0 +1,8 @@
+package com.projedata.inventory.dto;
+
+public record CatalogSyncResponse(
+    long insertedCount,
+    long updatedCount,
+    long unchangedCount
+) {
+}
@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing; {@code nextCursor} is {@code null} on the last page.
+ */
+public record CursorPage<T>(
+    List<T> items,
+    String nextCursor
+) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
@@ -0,0 +1,12 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+public record MaterialRequirement(
+    Long rawMaterialId,
+    String rawMaterialCode,
+    BigDecimal grossRequirement,
+    BigDecimal availableQuantity,
+    BigDecimal shortfallQuantity
+) {
+}
@@ -0,0 +1,28 @@
+package com.projedata.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.projedata.inventory.exception.BadRequestException;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public enum PlanningStrategy {
+    GREEDY,
+    OPTIMAL;
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static PlanningStrategy fromValue(String value) {
+        return Arrays.stream(values())
+            .filter(strategy -> strategy.value().equalsIgnoreCase(value.trim()))
+            .findFirst()
+            .orElseThrow(() -> new BadRequestException("Unknown planning strategy '%s'; expected one of: %s".formatted(
+                value,
+                Arrays.stream(values()).map(PlanningStrategy::value).collect(Collectors.joining(", "))
+            )));
+    }
+}
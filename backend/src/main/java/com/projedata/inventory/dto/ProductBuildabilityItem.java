@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+public record ProductBuildabilityItem(
+    Long productId,
+    String productCode,
+    String productName,
+    BigDecimal productValue,
+    long buildableQuantity,
+    Long limitingRawMaterialId,
+    String limitingRawMaterialCode
+) {
+}
@@ -9,9 +9,10 @@ public record ProductMaterialRequest(
     @NotNull(message = "Product id is required")
     Long productId,
 
-    @NotNull(message = "Raw material id is required")
     Long rawMaterialId,
 
+    Long componentProductId,
+
     @NotNull(message = "Required quantity is required")
     @DecimalMin(value = "0.001", message = "Required quantity must be greater than zero")
     BigDecimal requiredQuantity
@@ -10,6 +10,9 @@ public record ProductMaterialResponse(
     Long rawMaterialId,
     String rawMaterialCode,
     String rawMaterialName,
+    Long componentProductId,
+    String componentProductCode,
+    String componentProductName,
     BigDecimal requiredQuantity
 ) {
 }
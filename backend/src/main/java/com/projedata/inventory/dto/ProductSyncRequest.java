@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductSyncRequest(
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 100000, message = "At most 100000 items can be synchronized per request")
+    List<@Valid ProductRequest> items
+) {
+}
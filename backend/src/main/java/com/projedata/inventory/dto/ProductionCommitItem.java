@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record ProductionCommitItem(
+    @NotNull(message = "Product id is required")
+    Long productId,
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be greater than zero")
+    Long quantity
+) {
+}
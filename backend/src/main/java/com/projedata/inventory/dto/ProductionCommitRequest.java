@@ -0,0 +1,12 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductionCommitRequest(
+    @Size(max = 5000, message = "At most 5000 items can be committed per request")
+    List<@Valid ProductionCommitItem> items
+) {
+}
@@ -0,0 +1,11 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductionCommitResponse(
+    List<ProductionSuggestionItem> items,
+    BigDecimal totalProductionValue,
+    List<StockConsumption> consumption
+) {
+}
@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductionRequirementsRequest(
+    @NotEmpty(message = "At least one target is required")
+    @Size(max = 20000, message = "At most 20000 targets can be evaluated per request")
+    List<@Valid ProductionTarget> targets
+) {
+}
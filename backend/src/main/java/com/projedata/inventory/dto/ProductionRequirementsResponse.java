@@ -0,0 +1,9 @@
+package com.projedata.inventory.dto;
+
+import java.util.List;
+
+public record ProductionRequirementsResponse(
+    List<MaterialRequirement> requirements,
+    int shortageCount
+) {
+}
@@ -0,0 +1,16 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record ProductionScenario(
+    @NotBlank(message = "Scenario name is required")
+    String name,
+
+    @NotNull(message = "Stock overrides are required")
+    List<@Valid ScenarioStockOverride> stockOverrides
+) {
+}
@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ProductionScenarioRequest(
+    @NotEmpty(message = "At least one scenario is required")
+    @Size(max = 200, message = "At most 200 scenarios can be evaluated per request")
+    List<@Valid ProductionScenario> scenarios
+) {
+}
@@ -0,0 +1,8 @@
+package com.projedata.inventory.dto;
+
+import java.util.List;
+
+public record ProductionScenarioResponse(
+    List<ProductionScenarioResult> scenarios
+) {
+}
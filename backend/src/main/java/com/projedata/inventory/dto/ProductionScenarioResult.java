@@ -0,0 +1,7 @@
+package com.projedata.inventory.dto;
+
+public record ProductionScenarioResult(
+    String name,
+    ProductionSuggestionResponse plan
+) {
+}
@@ -5,6 +5,8 @@ import java.util.List;
 
 public record ProductionSuggestionResponse(
     List<ProductionSuggestionItem> items,
-    BigDecimal totalProductionValue
+    BigDecimal totalProductionValue,
+    PlanningStrategy strategy,
+    BigDecimal optimalityGap
 ) {
 }
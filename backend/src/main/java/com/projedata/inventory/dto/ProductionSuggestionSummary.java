@@ -0,0 +1,11 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+public record ProductionSuggestionSummary(
+    BigDecimal totalProductionValue,
+    int itemCount,
+    PlanningStrategy strategy,
+    BigDecimal optimalityGap
+) {
+}
@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record RawMaterialBatchRequest(
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 5000, message = "At most 5000 items can be created per request")
+    List<@Valid RawMaterialRequest> items
+) {
+}
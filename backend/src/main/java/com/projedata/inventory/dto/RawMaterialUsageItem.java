@@ -0,0 +1,12 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+public record RawMaterialUsageItem(
+    Long productId,
+    String productCode,
+    String productName,
+    BigDecimal requiredQuantity,
+    long buildableQuantity
+) {
+}
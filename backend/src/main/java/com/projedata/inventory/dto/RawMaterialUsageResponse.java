@@ -0,0 +1,11 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record RawMaterialUsageResponse(
+    Long rawMaterialId,
+    BigDecimal stockQuantity,
+    List<RawMaterialUsageItem> items
+) {
+}
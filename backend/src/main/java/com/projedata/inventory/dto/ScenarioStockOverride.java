@@ -0,0 +1,23 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+/**
+ * Either replaces a raw material's stock ({@code stockQuantity}) or adjusts it ({@code stockDelta}) for one scenario.
+ */
+public record ScenarioStockOverride(
+    @NotNull(message = "Raw material id is required")
+    Long rawMaterialId,
+
+    @DecimalMin(value = "0.000", message = "Stock quantity must be equal or greater than zero")
+    @Digits(integer = 11, fraction = 3, message = "Stock quantity must have at most 11 integer and 3 decimal digits")
+    BigDecimal stockQuantity,
+
+    @Digits(integer = 11, fraction = 3, message = "Stock delta must have at most 11 integer and 3 decimal digits")
+    BigDecimal stockDelta
+) {
+}
@@ -0,0 +1,11 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+public record StockConsumption(
+    Long rawMaterialId,
+    String rawMaterialCode,
+    BigDecimal consumedQuantity,
+    BigDecimal remainingQuantity
+) {
+}
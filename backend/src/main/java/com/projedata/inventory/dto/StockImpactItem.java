@@ -0,0 +1,10 @@
+package com.projedata.inventory.dto;
+
+public record StockImpactItem(
+    Long productId,
+    String productCode,
+    String productName,
+    long currentBuildableQuantity,
+    long proposedBuildableQuantity
+) {
+}
@@ -0,0 +1,20 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+
+import java.math.BigDecimal;
+
+/**
+ * Proposed stock for one raw material: either the new quantity ({@code stockQuantity}) or an adjustment
+ * ({@code stockDelta}).
+ */
+public record StockImpactRequest(
+    @DecimalMin(value = "0.000", message = "Stock quantity must be equal or greater than zero")
+    @Digits(integer = 11, fraction = 3, message = "Stock quantity must have at most 11 integer and 3 decimal digits")
+    BigDecimal stockQuantity,
+
+    @Digits(integer = 11, fraction = 3, message = "Stock delta must have at most 11 integer and 3 decimal digits")
+    BigDecimal stockDelta
+) {
+}
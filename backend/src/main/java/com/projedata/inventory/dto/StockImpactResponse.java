@@ -0,0 +1,12 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record StockImpactResponse(
+    Long rawMaterialId,
+    BigDecimal currentStockQuantity,
+    BigDecimal proposedStockQuantity,
+    List<StockImpactItem> items
+) {
+}
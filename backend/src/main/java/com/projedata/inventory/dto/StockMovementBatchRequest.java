@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record StockMovementBatchRequest(
+    @NotEmpty(message = "At least one movement is required")
+    @Size(max = 5000, message = "At most 5000 movements can be recorded per request")
+    List<@Valid StockMovementBatchItem> items
+) {
+}
@@ -0,0 +1,6 @@
+package com.projedata.inventory.dto;
+
+public record StockMovementBatchResponse(
+    int recordedCount
+) {
+}
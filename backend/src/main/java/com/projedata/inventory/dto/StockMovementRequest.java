@@ -0,0 +1,17 @@
+package com.projedata.inventory.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record StockMovementRequest(
+    @NotNull(message = "Quantity delta is required")
+    @Digits(integer = 11, fraction = 3, message = "Quantity delta must have at most 11 integer digits and 3 decimals")
+    BigDecimal quantityDelta,
+
+    @Size(max = 255, message = "Reason must have at most 255 characters")
+    String reason
+) {
+}
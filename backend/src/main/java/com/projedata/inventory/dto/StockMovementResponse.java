@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record StockMovementResponse(
+    Long id,
+    Long rawMaterialId,
+    BigDecimal quantityDelta,
+    BigDecimal resultingQuantity,
+    String reason,
+    LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.projedata.inventory.dto;
+
+import java.math.BigDecimal;
+
+public record StockShortage(
+    Long rawMaterialId,
+    String rawMaterialCode,
+    BigDecimal requiredQuantity,
+    BigDecimal availableQuantity
+) {
+}
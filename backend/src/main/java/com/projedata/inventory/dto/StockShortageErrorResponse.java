@@ -0,0 +1,14 @@
+package com.projedata.inventory.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record StockShortageErrorResponse(
+    OffsetDateTime timestamp,
+    int status,
+    String error,
+    String message,
+    String path,
+    List<StockShortage> shortages
+) {
+}
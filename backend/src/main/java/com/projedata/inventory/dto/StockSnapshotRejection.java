@@ -0,0 +1,17 @@
+package com.projedata.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Rows of a stock snapshot that were not applied, grouped by {@code reason}: {@code unknown_code},
+ * {@code negative_quantity}, {@code invalid_quantity} or {@code duplicate_code}. {@code sampleCodes} lists
+ * at most {@value #SAMPLE_LIMIT} of them.
+ */
+public record StockSnapshotRejection(
+    String reason,
+    long count,
+    List<String> sampleCodes
+) {
+
+    public static final int SAMPLE_LIMIT = 100;
+}
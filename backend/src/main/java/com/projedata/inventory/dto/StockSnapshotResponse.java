@@ -0,0 +1,11 @@
+package com.projedata.inventory.dto;
+
+import java.util.List;
+
+public record StockSnapshotResponse(
+    long rowsRead,
+    long updatedCount,
+    long unchangedCount,
+    List<StockSnapshotRejection> rejected
+) {
+}
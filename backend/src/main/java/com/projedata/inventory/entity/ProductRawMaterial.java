@@ -1,5 +1,6 @@
 package com.projedata.inventory.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -10,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
@@ -17,6 +19,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -27,24 +31,34 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-raw-materials")
 @Table(
     name = "product_raw_materials",
-    uniqueConstraints = @UniqueConstraint(name = "uk_prm_product_material", columnNames = {"product_id", "raw_material_id"})
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_prm_product_material", columnNames = {"product_id", "raw_material_id"}),
+        @UniqueConstraint(name = "uk_prm_product_component", columnNames = {"product_id", "component_product_id"})
+    }
 )
 public class ProductRawMaterial {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_raw_materials_id_seq")
+    @SequenceGenerator(name = "product_raw_materials_id_seq", sequenceName = "product_raw_materials_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
-    @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "raw_material_id", nullable = false)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "raw_material_id")
     private RawMaterial rawMaterial;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "component_product_id")
+    private Product componentProduct;
+
     @Column(name = "required_quantity", nullable = false, precision = 14, scale = 3)
     private BigDecimal requiredQuantity;
 
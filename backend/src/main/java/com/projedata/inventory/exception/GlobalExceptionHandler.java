@@ -1,11 +1,13 @@
 package com.projedata.inventory.exception;
 
 import com.projedata.inventory.dto.ErrorResponse;
+import com.projedata.inventory.dto.StockShortageErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -32,6 +34,24 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.CONFLICT, message, request.getRequestURI());
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<StockShortageErrorResponse> handleInsufficientStock(
+        InsufficientStockException ex,
+        HttpServletRequest request
+    ) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(
+            new StockShortageErrorResponse(
+                OffsetDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                ex.getMessage(),
+                request.getRequestURI(),
+                ex.getShortages()
+            )
+        );
+    }
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ErrorResponse> handleBadRequest(BadRequestException ex, HttpServletRequest request) {
         return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
@@ -89,7 +109,7 @@ public class GlobalExceptionHandler {
     }
 
     private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message, String path) {
-        return ResponseEntity.status(status).body(
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(
             new ErrorResponse(OffsetDateTime.now(), status.value(), status.getReasonPhrase(), message, path)
         );
     }
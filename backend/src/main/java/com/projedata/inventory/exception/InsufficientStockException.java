@@ -0,0 +1,19 @@
+package com.projedata.inventory.exception;
+
+import com.projedata.inventory.dto.StockShortage;
+
+import java.util.List;
+
+public class InsufficientStockException extends ConflictException {
+
+    private final List<StockShortage> shortages;
+
+    public InsufficientStockException(String message, List<StockShortage> shortages) {
+        super(message);
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<StockShortage> getShortages() {
+        return shortages;
+    }
+}
@@ -1,8 +1,14 @@
 package com.projedata.inventory.repository;
 
+import com.projedata.inventory.dto.ProductMaterialResponse;
 import com.projedata.inventory.entity.ProductRawMaterial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
@@ -10,15 +16,81 @@ import java.util.Optional;
 
 public interface ProductRawMaterialRepository extends JpaRepository<ProductRawMaterial, Long> {
 
-    @EntityGraph(attributePaths = {"product", "rawMaterial"})
-    List<ProductRawMaterial> findByProductIdOrderByIdAsc(Long productId);
+    String QUERY_CACHE_REGION = "composition-queries";
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.ProductMaterialResponse(
+            prm.id, p.id, p.code, p.name,
+            rm.id, rm.code, rm.name,
+            cp.id, cp.code, cp.name,
+            prm.requiredQuantity
+        )
+        FROM ProductRawMaterial prm
+        JOIN prm.product p
+        LEFT JOIN prm.rawMaterial rm
+        LEFT JOIN prm.componentProduct cp
+        WHERE p.id = :productId
+        ORDER BY prm.id
+        """)
+    List<ProductMaterialResponse> findResponsesByProductId(@Param("productId") Long productId);
 
     @EntityGraph(attributePaths = {"product", "rawMaterial"})
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE"))
     List<ProductRawMaterial> findByProductIdIn(Collection<Long> productIds);
 
     boolean existsByProductId(Long productId);
 
     boolean existsByRawMaterialId(Long rawMaterialId);
 
+    boolean existsByComponentProductId(Long componentProductId);
+
     Optional<ProductRawMaterial> findByProductIdAndRawMaterialId(Long productId, Long rawMaterialId);
+
+    Optional<ProductRawMaterial> findByProductIdAndComponentProductId(Long productId, Long componentProductId);
+
+    /**
+     * Tells whether {@code toProductId} is {@code fromProductId} itself or one of its (transitive) components.
+     */
+    @Query(value = """
+        WITH RECURSIVE reachable (product_id) AS (
+            SELECT CAST(:fromProductId AS BIGINT)
+            UNION
+            SELECT prm.component_product_id
+            FROM product_raw_materials prm
+            JOIN reachable r ON prm.product_id = r.product_id
+            WHERE prm.component_product_id IS NOT NULL
+        )
+        SELECT EXISTS (SELECT 1 FROM reachable WHERE product_id = :toProductId)
+        """, nativeQuery = true)
+    boolean existsComponentPath(@Param("fromProductId") Long fromProductId, @Param("toProductId") Long toProductId);
+
+    /**
+     * Returns a product that reaches itself through the component lines with the given ids, if any. Meant to run
+     * after new lines are flushed, so cycles closed within a batch are found too.
+     */
+    @Query(value = """
+        WITH RECURSIVE walk (start_id, product_id) AS (
+            SELECT prm.product_id, prm.component_product_id
+            FROM product_raw_materials prm
+            WHERE prm.id IN (:compositionIds) AND prm.component_product_id IS NOT NULL
+            UNION
+            SELECT w.start_id, prm.component_product_id
+            FROM walk w
+            JOIN product_raw_materials prm ON prm.product_id = w.product_id
+            WHERE prm.component_product_id IS NOT NULL
+        )
+        SELECT w.start_id FROM walk w WHERE w.product_id = w.start_id LIMIT 1
+        """, nativeQuery = true)
+    Optional<Long> findProductOnComponentCycle(@Param("compositionIds") Collection<Long> compositionIds);
+
+    /**
+     * Serializes changes to the product-component graph until the end of the current transaction, so that
+     * concurrent edits cannot each pass the cycle check and close a cycle together.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:key)", nativeQuery = true)
+    Integer lockComponentGraph(@Param("key") long key);
 }
@@ -1,15 +1,80 @@
 package com.projedata.inventory.repository;
 
+import com.projedata.inventory.dto.ProductResponse;
 import com.projedata.inventory.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    String QUERY_CACHE_REGION = "product-queries";
+
     boolean existsByCode(String code);
 
     boolean existsByCodeAndIdNot(String code, Long id);
 
+    @Query("SELECT p.code FROM Product p WHERE p.code IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE"))
     List<Product> findAllByOrderByValueDescCodeAsc();
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.ProductResponse(p.id, p.code, p.name, p.value)
+        FROM Product p
+        ORDER BY p.value DESC, p.code ASC
+        """)
+    List<ProductResponse> findAllResponses();
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.ProductResponse(p.id, p.code, p.name, p.value)
+        FROM Product p
+        ORDER BY p.value DESC, p.code ASC
+        """)
+    List<ProductResponse> findResponses(Limit limit);
+
+    /**
+     * Next page in {@code (value DESC, code ASC)} order. The redundant {@code value <= :value} bound lets the
+     * {@code (value DESC, code)} index start the scan at the cursor instead of filtering from the top.
+     */
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.ProductResponse(p.id, p.code, p.name, p.value)
+        FROM Product p
+        WHERE p.value <= :value AND (p.value < :value OR p.code > :code)
+        ORDER BY p.value DESC, p.code ASC
+        """)
+    List<ProductResponse> findResponsesAfter(@Param("value") BigDecimal value, @Param("code") String code, Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.ProductResponse(p.id, p.code, p.name, p.value)
+        FROM Product p
+        WHERE p.id = :id
+        """)
+    Optional<ProductResponse> findResponseById(@Param("id") Long id);
 }
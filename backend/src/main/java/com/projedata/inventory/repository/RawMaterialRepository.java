@@ -1,11 +1,86 @@
 package com.projedata.inventory.repository;
 
+import com.projedata.inventory.dto.RawMaterialResponse;
 import com.projedata.inventory.entity.RawMaterial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long> {
 
+    /**
+     * Query cache region of the listing queries below; stock written through JDBC invalidates it through
+     * {@link com.projedata.inventory.service.CatalogCache}.
+     */
+    String QUERY_CACHE_REGION = "raw-material-queries";
+
+    /**
+     * Full scan for the planner; bypasses the second-level cache so it does not push hot entries out.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<RawMaterial> findAll();
+
     boolean existsByCode(String code);
 
     boolean existsByCodeAndIdNot(String code, Long id);
+
+    @Query("SELECT r.code FROM RawMaterial r WHERE r.code IN :codes")
+    List<String> findExistingCodes(@Param("codes") Collection<String> codes);
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity)
+        FROM RawMaterial r
+        ORDER BY r.id
+        """)
+    List<RawMaterialResponse> findAllResponses();
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity)
+        FROM RawMaterial r
+        ORDER BY r.code
+        """)
+    List<RawMaterialResponse> findResponses(Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity)
+        FROM RawMaterial r
+        WHERE r.code > :code
+        ORDER BY r.code
+        """)
+    List<RawMaterialResponse> findResponsesAfter(@Param("code") String code, Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    @Query("""
+        SELECT new com.projedata.inventory.dto.RawMaterialResponse(r.id, r.code, r.name, r.stockQuantity)
+        FROM RawMaterial r
+        WHERE r.id = :id
+        """)
+    Optional<RawMaterialResponse> findResponseById(@Param("id") Long id);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM stock_movements WHERE raw_material_id = :id)", nativeQuery = true)
+    boolean hasStockMovements(@Param("id") Long id);
 }
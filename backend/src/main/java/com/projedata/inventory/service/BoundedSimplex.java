@@ -0,0 +1,167 @@
+package com.projedata.inventory.service;
+
+/**
+ * Dense bounded-variable primal simplex for {@code max c·y} subject to {@code A·y <= b}, {@code 0 <= y <= u},
+ * with {@code A >= 0} and {@code b >= 0}. Under those conditions the origin is feasible, so no phase one is needed.
+ * Upper bounds are handled implicitly (bound flips) instead of as extra rows.
+ */
+final class BoundedSimplex {
+
+    private static final double EPSILON = 1e-9;
+
+    private BoundedSimplex() {
+    }
+
+    enum Status {
+        OPTIMAL,
+        ABORTED
+    }
+
+    record Result(Status status, double objective, double[] values) {
+    }
+
+    /**
+     * Solves the relaxation. {@code a} is row-major {@code rows x columns}; it is not modified.
+     * Returns {@link Status#ABORTED} when the deadline passes or the iteration limit is reached.
+     */
+    static Result maximize(double[][] a, double[] b, double[] c, double[] upper, long deadlineNanos) {
+        int rows = b.length;
+        int columns = c.length;
+        int width = columns + rows;
+
+        double[][] tableau = new double[rows][width];
+        double[] basicValues = b.clone();
+        int[] basis = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(a[i], 0, tableau[i], 0, columns);
+            tableau[i][columns + i] = 1.0;
+            basis[i] = columns + i;
+        }
+
+        double[] reducedCost = new double[width];
+        System.arraycopy(c, 0, reducedCost, 0, columns);
+        boolean[] basic = new boolean[width];
+        boolean[] atUpper = new boolean[width];
+        for (int i = 0; i < rows; i++) {
+            basic[columns + i] = true;
+        }
+
+        int iterationLimit = 50 * (width + 1);
+        for (int iteration = 0; ; iteration++) {
+            if (iteration >= iterationLimit || ((iteration & 63) == 0 && System.nanoTime() - deadlineNanos > 0)) {
+                return new Result(Status.ABORTED, Double.NaN, null);
+            }
+
+            int entering = -1;
+            double best = EPSILON;
+            for (int j = 0; j < width; j++) {
+                if (basic[j]) {
+                    continue;
+                }
+                double gain = atUpper[j] ? -reducedCost[j] : reducedCost[j];
+                if (gain > best) {
+                    best = gain;
+                    entering = j;
+                }
+            }
+            if (entering < 0) {
+                break;
+            }
+
+            double direction = atUpper[entering] ? -1.0 : 1.0;
+            double step = entering < columns ? upper[entering] : Double.POSITIVE_INFINITY;
+            int leavingRow = -1;
+            boolean leavesAtUpper = false;
+
+            for (int i = 0; i < rows; i++) {
+                double alpha = direction * tableau[i][entering];
+                if (alpha > EPSILON) {
+                    double limit = basicValues[i] / alpha;
+                    if (limit < step) {
+                        step = limit;
+                        leavingRow = i;
+                        leavesAtUpper = false;
+                    }
+                } else if (alpha < -EPSILON && basis[i] < columns) {
+                    double limit = (upper[basis[i]] - basicValues[i]) / -alpha;
+                    if (limit < step) {
+                        step = limit;
+                        leavingRow = i;
+                        leavesAtUpper = true;
+                    }
+                }
+            }
+
+            if (Double.isInfinite(step)) {
+                return new Result(Status.ABORTED, Double.NaN, null);
+            }
+            step = Math.max(step, 0.0);
+
+            for (int i = 0; i < rows; i++) {
+                basicValues[i] -= direction * step * tableau[i][entering];
+            }
+
+            if (leavingRow < 0) {
+                atUpper[entering] = !atUpper[entering];
+                continue;
+            }
+
+            double enteringValue = (atUpper[entering] ? upper[entering] : 0.0) + direction * step;
+            int leaving = basis[leavingRow];
+            pivot(tableau, reducedCost, leavingRow, entering);
+
+            basic[leaving] = false;
+            atUpper[leaving] = leavesAtUpper;
+            basic[entering] = true;
+            atUpper[entering] = false;
+            basis[leavingRow] = entering;
+            basicValues[leavingRow] = enteringValue;
+        }
+
+        double[] values = new double[columns];
+        for (int j = 0; j < columns; j++) {
+            if (!basic[j] && atUpper[j]) {
+                values[j] = upper[j];
+            }
+        }
+        for (int i = 0; i < rows; i++) {
+            if (basis[i] < columns) {
+                values[basis[i]] = Math.min(Math.max(basicValues[i], 0.0), upper[basis[i]]);
+            }
+        }
+
+        double objective = 0.0;
+        for (int j = 0; j < columns; j++) {
+            objective += c[j] * values[j];
+        }
+        return new Result(Status.OPTIMAL, objective, values);
+    }
+
+    private static void pivot(double[][] tableau, double[] reducedCost, int pivotRow, int pivotColumn) {
+        double[] row = tableau[pivotRow];
+        double pivot = row[pivotColumn];
+        for (int j = 0; j < row.length; j++) {
+            row[j] /= pivot;
+        }
+
+        for (int i = 0; i < tableau.length; i++) {
+            if (i == pivotRow) {
+                continue;
+            }
+            double factor = tableau[i][pivotColumn];
+            if (factor != 0.0) {
+                double[] target = tableau[i];
+                for (int j = 0; j < target.length; j++) {
+                    target[j] -= factor * row[j];
+                }
+            }
+        }
+
+        double factor = reducedCost[pivotColumn];
+        if (factor != 0.0) {
+            for (int j = 0; j < reducedCost.length; j++) {
+                reducedCost[j] -= factor * row[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.projedata.inventory.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.DoubleAccumulator;
+
+/**
+ * Branch-and-bound search for the production plan that maximizes {@code Σ value·quantity} subject to the stock
+ * constraints of a {@link CompiledPlan}. Nodes are bounded with the LP relaxation ({@link BoundedSimplex}),
+ * the top of the tree is explored in parallel on a fork-join pool and the search stops at a deadline, returning
+ * the best plan found together with the best bound still open.
+ */
+final class BranchAndBoundSolver {
+
+    /**
+     * Problems whose dense tableau would exceed this many cells are not searched; the greedy plan is returned
+     * with a bound derived from each product's standalone maximum.
+     */
+    static final long MAX_TABLEAU_CELLS = 4_000_000L;
+
+    private static final int FORK_DEPTH = 10;
+    private static final double INTEGRALITY_TOLERANCE = 1e-6;
+    private static final double PRUNE_TOLERANCE = 0.005;
+
+    private final CompiledPlan plan;
+    private final long[] stock;
+    private final long deadlineNanos;
+
+    private final int[] productOf;
+    private final double[] values;
+    private final long[] standaloneMax;
+    private final double[][] matrix;
+    private final double[] rowScale;
+    private final int[] materialRow;
+    private final double valueScale;
+
+    private final Object incumbentLock = new Object();
+    private long[] incumbent;
+    private double incumbentValue;
+
+    private final DoubleAccumulator openBound = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+    private final AtomicBoolean interrupted = new AtomicBoolean();
+
+    private BranchAndBoundSolver(CompiledPlan plan, long[] stock, long deadlineNanos) {
+        this.plan = plan;
+        this.stock = stock;
+        this.deadlineNanos = deadlineNanos;
+
+        List<Integer> candidates = new ArrayList<>();
+        List<Long> maxima = new ArrayList<>();
+        for (int product = 0; product < plan.productCount(); product++) {
+            long max = standaloneMaximum(product);
+            if (max > 0) {
+                candidates.add(product);
+                maxima.add(max);
+            }
+        }
+
+        productOf = candidates.stream().mapToInt(Integer::intValue).toArray();
+        standaloneMax = maxima.stream().mapToLong(Long::longValue).toArray();
+        values = new double[productOf.length];
+        double maxValue = 0.0;
+        for (int j = 0; j < productOf.length; j++) {
+            values[j] = plan.product(productOf[j]).value().doubleValue();
+            maxValue = Math.max(maxValue, values[j]);
+        }
+        valueScale = maxValue > 0 ? maxValue : 1.0;
+
+        materialRow = new int[plan.rawMaterialCount()];
+        Arrays.fill(materialRow, -1);
+        int rows = 0;
+        for (int product : productOf) {
+            for (int line = plan.compositionStart(product); line < plan.compositionEnd(product); line++) {
+                int material = plan.compositionMaterial(line);
+                if (materialRow[material] < 0) {
+                    materialRow[material] = rows++;
+                }
+            }
+        }
+
+        if ((long) rows * (productOf.length + rows) > MAX_TABLEAU_CELLS) {
+            matrix = null;
+            rowScale = null;
+            return;
+        }
+
+        matrix = new double[rows][productOf.length];
+        rowScale = new double[rows];
+        for (int j = 0; j < productOf.length; j++) {
+            int product = productOf[j];
+            for (int line = plan.compositionStart(product); line < plan.compositionEnd(product); line++) {
+                int row = materialRow[plan.compositionMaterial(line)];
+                matrix[row][j] = plan.compositionRequired(line);
+                rowScale[row] = Math.max(rowScale[row], plan.compositionRequired(line));
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int j = 0; j < productOf.length; j++) {
+                matrix[row][j] /= rowScale[row];
+            }
+        }
+    }
+
+    /**
+     * Searches for the best plan until the search completes or {@code deadlineNanos} (a {@link System#nanoTime()}
+     * instant) passes. {@code stock} is not modified.
+     */
+    static Solution solve(CompiledPlan plan, long[] stock, ForkJoinPool pool, long deadlineNanos) {
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(plan, stock, deadlineNanos);
+        return solver.run(pool);
+    }
+
+    private Solution run(ForkJoinPool pool) {
+        long[] greedy = plan.allocateGreedy(stock.clone());
+        long[] start = new long[productOf.length];
+        for (int j = 0; j < productOf.length; j++) {
+            start[j] = greedy[productOf[j]];
+        }
+        offer(start);
+
+        if (productOf.length == 0) {
+            return solution(0.0, true);
+        }
+
+        double standaloneBound = 0.0;
+        for (int j = 0; j < productOf.length; j++) {
+            standaloneBound += values[j] * standaloneMax[j];
+        }
+        if (matrix == null) {
+            return solution(standaloneBound, false);
+        }
+
+        pool.invoke(new Node(new long[productOf.length], standaloneMax.clone(), standaloneBound, 0));
+
+        if (!interrupted.get()) {
+            return solution(incumbentValue, true);
+        }
+        return solution(Math.max(incumbentValue, openBound.get()), false);
+    }
+
+    private Solution solution(double upperBound, boolean complete) {
+        long[] quantities = new long[plan.productCount()];
+        synchronized (incumbentLock) {
+            for (int j = 0; j < productOf.length; j++) {
+                quantities[productOf[j]] = incumbent[j];
+            }
+            return new Solution(quantities, incumbentValue, Math.max(upperBound, incumbentValue), complete);
+        }
+    }
+
+    private final class Node extends RecursiveAction {
+
+        private final long[] lower;
+        private final long[] upper;
+        private final double parentBound;
+        private final int depth;
+
+        Node(long[] lower, long[] upper, double parentBound, int depth) {
+            this.lower = lower;
+            this.upper = upper;
+            this.parentBound = parentBound;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth < FORK_DEPTH) {
+                Node[] children = expand(this);
+                if (children.length > 0) {
+                    invokeAll(children);
+                }
+                return;
+            }
+
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(this);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                for (Node child : expand(node)) {
+                    pending.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a node and returns the children that still need to be explored.
+     */
+    private Node[] expand(Node node) {
+        if (node.parentBound <= currentIncumbentValue() + PRUNE_TOLERANCE) {
+            return new Node[0];
+        }
+        if (System.nanoTime() - deadlineNanos > 0) {
+            abandon(node.parentBound);
+            return new Node[0];
+        }
+
+        int columns = productOf.length;
+        double[] residual = new double[rowScale.length];
+        long[] residualExact = residualStock(node.lower);
+        if (residualExact == null) {
+            return new Node[0];
+        }
+        double[] capacity = new double[columns];
+        double fixedValue = 0.0;
+        for (int j = 0; j < columns; j++) {
+            long span = node.upper[j] - node.lower[j];
+            if (span < 0) {
+                return new Node[0];
+            }
+            capacity[j] = span;
+            fixedValue += values[j] * node.lower[j];
+        }
+        for (int material = 0; material < materialRow.length; material++) {
+            int row = materialRow[material];
+            if (row >= 0) {
+                residual[row] = residualExact[material] / rowScale[row];
+            }
+        }
+
+        double[] objective = new double[columns];
+        for (int j = 0; j < columns; j++) {
+            objective[j] = values[j] / valueScale;
+        }
+
+        BoundedSimplex.Result relaxation = BoundedSimplex.maximize(matrix, residual, objective, capacity, deadlineNanos);
+        if (relaxation.status() == BoundedSimplex.Status.ABORTED) {
+            abandon(node.parentBound);
+            return new Node[0];
+        }
+
+        double bound = fixedValue + relaxation.objective() * valueScale;
+        if (bound <= currentIncumbentValue() + PRUNE_TOLERANCE) {
+            return new Node[0];
+        }
+
+        double[] relaxed = relaxation.values();
+        long[] rounded = new long[columns];
+        int branchOn = -1;
+        double mostFractional = INTEGRALITY_TOLERANCE;
+        for (int j = 0; j < columns; j++) {
+            double value = node.lower[j] + relaxed[j];
+            long floor = (long) Math.floor(value + INTEGRALITY_TOLERANCE);
+            rounded[j] = Math.max(node.lower[j], Math.min(node.upper[j], floor));
+            double fraction = value - Math.floor(value);
+            double distance = Math.min(fraction, 1.0 - fraction);
+            if (distance > mostFractional) {
+                mostFractional = distance;
+                branchOn = j;
+            }
+        }
+
+        offer(complete(rounded, node.upper));
+        if (branchOn < 0) {
+            return new Node[0];
+        }
+
+        double value = node.lower[branchOn] + relaxed[branchOn];
+        long[] upLower = node.lower.clone();
+        upLower[branchOn] = (long) Math.ceil(value);
+        long[] downUpper = node.upper.clone();
+        downUpper[branchOn] = (long) Math.floor(value);
+
+        return new Node[] {
+            new Node(node.lower, downUpper, bound, node.depth + 1),
+            new Node(upLower, node.upper, bound, node.depth + 1)
+        };
+    }
+
+    /**
+     * Tops a feasible candidate up greedily, in planning order and within the node's upper bounds.
+     * Returns {@code null} when the candidate itself does not fit the stock.
+     */
+    private long[] complete(long[] candidate, long[] upper) {
+        long[] remaining = residualStock(candidate);
+        if (remaining == null) {
+            return null;
+        }
+
+        long[] quantities = candidate.clone();
+        for (int j = 0; j < productOf.length; j++) {
+            int product = productOf[j];
+            long extra = upper[j] - quantities[j];
+            for (int line = plan.compositionStart(product); line < plan.compositionEnd(product) && extra > 0; line++) {
+                extra = Math.min(extra, remaining[plan.compositionMaterial(line)] / plan.compositionRequired(line));
+            }
+            if (extra <= 0) {
+                continue;
+            }
+            for (int line = plan.compositionStart(product); line < plan.compositionEnd(product); line++) {
+                remaining[plan.compositionMaterial(line)] -= extra * plan.compositionRequired(line);
+            }
+            quantities[j] += extra;
+        }
+        return quantities;
+    }
+
+    /**
+     * Returns the stock left after producing {@code quantities}, or {@code null} when they do not fit.
+     */
+    private long[] residualStock(long[] quantities) {
+        long[] remaining = stock.clone();
+        try {
+            for (int j = 0; j < productOf.length; j++) {
+                if (quantities[j] == 0) {
+                    continue;
+                }
+                int product = productOf[j];
+                for (int line = plan.compositionStart(product); line < plan.compositionEnd(product); line++) {
+                    int material = plan.compositionMaterial(line);
+                    remaining[material] = Math.subtractExact(
+                        remaining[material],
+                        Math.multiplyExact(quantities[j], plan.compositionRequired(line))
+                    );
+                    if (remaining[material] < 0) {
+                        return null;
+                    }
+                }
+            }
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+        return remaining;
+    }
+
+    private long standaloneMaximum(int product) {
+        int from = plan.compositionStart(product);
+        int to = plan.compositionEnd(product);
+        if (from == to) {
+            return 0;
+        }
+        long max = Long.MAX_VALUE;
+        for (int line = from; line < to; line++) {
+            max = Math.min(max, stock[plan.compositionMaterial(line)] / plan.compositionRequired(line));
+        }
+        return max;
+    }
+
+    private void offer(long[] candidate) {
+        if (candidate == null) {
+            return;
+        }
+        double value = 0.0;
+        for (int j = 0; j < candidate.length; j++) {
+            value += values[j] * candidate[j];
+        }
+        synchronized (incumbentLock) {
+            if (incumbent == null || value > incumbentValue + PRUNE_TOLERANCE) {
+                incumbent = candidate;
+                incumbentValue = value;
+            }
+        }
+    }
+
+    private double currentIncumbentValue() {
+        synchronized (incumbentLock) {
+            return incumbentValue;
+        }
+    }
+
+    private void abandon(double bound) {
+        interrupted.set(true);
+        openBound.accumulate(bound);
+    }
+
+    /**
+     * Best plan found (quantities indexed like the compiled plan's products), its value, the best proven upper
+     * bound on the optimum and whether the search finished (in which case the plan is optimal).
+     */
+    record Solution(long[] quantities, double value, double upperBound, boolean complete) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.entity.Product;
+import com.projedata.inventory.entity.RawMaterial;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the Hibernate second-level cache current for writes that bypass Hibernate. Repository writes update
+ * the cache on their own; the services that run SQL through {@code JdbcTemplate} report the rows they changed
+ * here, inside the writing transaction, and the cache is invalidated the way Hibernate does it for its own
+ * updates: the cached entities are soft-locked and the entity's tables are marked as being updated until the
+ * transaction completes. A plain eviction at commit is not enough, because a reader that loaded the old row (or
+ * ran a listing) before the commit could still put it back afterwards and have it served until it expires;
+ * while locked, and afterwards for every session opened before the unlock, those puts are refused.
+ * Every cached listing that reads one of the tables is invalidated, including the composition listings.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void stockChanged(Collection<Long> rawMaterialIds) {
+        invalidate(RawMaterial.class, rawMaterialIds);
+    }
+
+    public void rawMaterialsChanged(Collection<Long> rawMaterialIds) {
+        invalidate(RawMaterial.class, rawMaterialIds);
+    }
+
+    public void productsChanged(Collection<Long> productIds) {
+        invalidate(Product.class, productIds);
+    }
+
+    private void invalidate(Class<?> entityClass, Collection<Long> ids) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(id -> entityManagerFactory.getCache().evict(entityClass, id));
+            entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().evictQueryRegions();
+            return;
+        }
+
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister persister = factory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        String[] tables = tables(persister.getQuerySpaces());
+        TimestampsCache timestamps = factory.getCache().getTimestampsCache();
+        timestamps.preInvalidate(tables, session);
+
+        EntityDataAccess access = persister.canWriteToCache() ? persister.getCacheAccessStrategy() : null;
+        List<Object> keys = new ArrayList<>(ids.size());
+        List<SoftLock> locks = new ArrayList<>(ids.size());
+        if (access != null) {
+            for (Long id : ids) {
+                Object key = access.generateCacheKey(id, persister, factory, null);
+                keys.add(key);
+                locks.add(access.lockItem(session, key, null));
+            }
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = 0; i < keys.size(); i++) {
+                    access.unlockItem(session, keys.get(i), locks.get(i));
+                }
+                timestamps.invalidate(tables, session);
+            }
+        });
+    }
+
+    private static String[] tables(Serializable[] querySpaces) {
+        return Arrays.stream(querySpaces).map(String.class::cast).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,164 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.CatalogSyncResponse;
+import com.projedata.inventory.dto.ProductRequest;
+import com.projedata.inventory.dto.RawMaterialRequest;
+import com.projedata.inventory.exception.ConflictException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Upserts a full, code-keyed copy of the product or raw material master in a single statement. The items are
+ * sent as arrays and unnested server side; rows whose values already match are filtered out before the insert
+ * (so they neither write nor draw an id from the sequence), and {@code ON CONFLICT ... WHERE ... IS DISTINCT FROM}
+ * updates only the rows that really differ, leaving {@code updated_at} of the others untouched. Items are applied
+ * in code order so concurrent syncs lock rows in the same order.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSyncService {
+
+    static final String SYNC_REASON = "catalog sync";
+
+    private static final String UPSERT_PRODUCTS = """
+        WITH incoming AS (
+            SELECT code, name, CAST(value AS NUMERIC(14, 2)) AS value
+            FROM unnest(CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS NUMERIC[])) AS t (code, name, value)
+        )
+        INSERT INTO products AS p (code, name, value)
+        SELECT i.code, i.name, i.value
+        FROM incoming i
+        WHERE NOT EXISTS (
+            SELECT 1 FROM products e WHERE e.code = i.code AND e.name = i.name AND e.value = i.value
+        )
+        ON CONFLICT (code) DO UPDATE
+        SET name = EXCLUDED.name, value = EXCLUDED.value, updated_at = CURRENT_TIMESTAMP
+        WHERE (p.name, p.value) IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.value)
+        RETURNING p.id, p.xmax = 0 AS inserted
+        """;
+
+    /**
+     * Like the product upsert, and additionally records every stock change in the movement ledger. The existing
+     * rows that differ are read and locked first (in code order), because {@code RETURNING} only sees the new
+     * quantity; the insert reads them as its source, so each row is locked before it is written.
+     */
+    private static final String UPSERT_RAW_MATERIALS = """
+        WITH incoming AS (
+            SELECT code, name, CAST(stock_quantity AS NUMERIC(14, 3)) AS stock_quantity
+            FROM unnest(CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS NUMERIC[])) AS t (code, name, stock_quantity)
+        ),
+        previous AS (
+            SELECT e.id, e.code, e.stock_quantity
+            FROM raw_materials e
+            JOIN incoming i ON i.code = e.code
+            WHERE (e.name, e.stock_quantity) IS DISTINCT FROM (i.name, i.stock_quantity)
+            ORDER BY e.code
+            FOR UPDATE OF e
+        ),
+        upserted AS (
+            INSERT INTO raw_materials AS r (code, name, stock_quantity)
+            SELECT i.code, i.name, i.stock_quantity
+            FROM incoming i
+            LEFT JOIN previous p ON p.code = i.code
+            WHERE p.id IS NOT NULL OR NOT EXISTS (SELECT 1 FROM raw_materials e WHERE e.code = i.code)
+            ON CONFLICT (code) DO UPDATE
+            SET name = EXCLUDED.name, stock_quantity = EXCLUDED.stock_quantity, updated_at = CURRENT_TIMESTAMP
+            WHERE (r.name, r.stock_quantity) IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.stock_quantity)
+            RETURNING r.id, r.stock_quantity, r.xmax = 0 AS inserted
+        ),
+        ledger AS (
+            INSERT INTO stock_movements (raw_material_id, quantity_delta, resulting_quantity, reason)
+            SELECT u.id, u.stock_quantity - p.stock_quantity, u.stock_quantity, '%s'
+            FROM upserted u
+            JOIN previous p ON p.id = u.id
+            WHERE u.stock_quantity <> p.stock_quantity
+        )
+        SELECT id, inserted FROM upserted
+        """.formatted(SYNC_REASON);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductionPlanModel productionPlanModel;
+    private final CatalogCache catalogCache;
+
+    @Transactional
+    public CatalogSyncResponse syncProducts(List<ProductRequest> requests) {
+        List<Row> rows = normalize(requests, "Product", request -> new Row(request.code(), request.name(), request.value()));
+        List<Upserted> upserted = upsert(UPSERT_PRODUCTS, rows);
+
+        List<Long> changedIds = upserted.stream().map(Upserted::id).toList();
+        productionPlanModel.productsChanged(changedIds);
+        catalogCache.productsChanged(changedIds);
+        return summarize(rows.size(), upserted);
+    }
+
+    @Transactional
+    public CatalogSyncResponse syncRawMaterials(List<RawMaterialRequest> requests) {
+        List<Row> rows = normalize(
+            requests,
+            "Raw material",
+            request -> new Row(request.code(), request.name(), request.stockQuantity())
+        );
+        List<Upserted> upserted = upsert(UPSERT_RAW_MATERIALS, rows);
+
+        List<Long> changedIds = upserted.stream().map(Upserted::id).toList();
+        productionPlanModel.rawMaterialsChanged(changedIds);
+        catalogCache.rawMaterialsChanged(changedIds);
+        return summarize(rows.size(), upserted);
+    }
+
+    private static <T> List<Row> normalize(List<T> requests, String label, Function<T, Row> toRow) {
+        List<Row> rows = new ArrayList<>(requests.size());
+        Set<String> codes = new HashSet<>();
+        for (T request : requests) {
+            Row row = toRow.apply(request);
+            Row trimmed = new Row(row.code().trim(), row.name().trim(), row.amount());
+            if (!codes.add(trimmed.code())) {
+                throw new ConflictException(
+                    "%s code '%s' appears more than once in the batch".formatted(label, trimmed.code())
+                );
+            }
+            rows.add(trimmed);
+        }
+        rows.sort(Comparator.comparing(Row::code));
+        return rows;
+    }
+
+    private List<Upserted> upsert(String sql, List<Row> rows) {
+        String[] codes = rows.stream().map(Row::code).toArray(String[]::new);
+        String[] names = rows.stream().map(Row::name).toArray(String[]::new);
+        BigDecimal[] amounts = rows.stream().map(Row::amount).toArray(BigDecimal[]::new);
+        return jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setArray(1, connection.createArrayOf("varchar", codes));
+                statement.setArray(2, connection.createArrayOf("varchar", names));
+                statement.setArray(3, connection.createArrayOf("numeric", amounts));
+                return statement;
+            },
+            (rs, rowNum) -> new Upserted(rs.getLong("id"), rs.getBoolean("inserted"))
+        );
+    }
+
+    private static CatalogSyncResponse summarize(int received, List<Upserted> upserted) {
+        long inserted = upserted.stream().filter(Upserted::inserted).count();
+        long updated = upserted.size() - inserted;
+        return new CatalogSyncResponse(inserted, updated, received - upserted.size());
+    }
+
+    private record Row(String code, String name, BigDecimal amount) {
+    }
+
+    private record Upserted(long id, boolean inserted) {
+    }
+}
@@ -0,0 +1,530 @@
+package com.projedata.inventory.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, array-backed form of the planning data.
+ * <p>
+ * Product and raw material ids are mapped to dense indexes and compositions are stored row by row
+ * (compressed sparse rows ordered like the planner visits the products). Compositions may reference other
+ * products as components; they are exploded at compile time, so each row lists the raw materials a unit of the
+ * product ultimately consumes. Every quantity is a {@code long} scaled by 10^{@link #quantityScale()}: the
+ * {@code NUMERIC(14,3)} scale, widened when exploded requirements need more decimal places, up to
+ * {@link #MAX_QUANTITY_SCALE}. Deeper products of fractional requirements are rounded up to that scale, so a unit
+ * is never planned with less than it consumes and one nested composition cannot push the catalog's stock out of
+ * the 64-bit range. Integer division on the scaled values gives {@code floor(stock / required)}.
+ * <p>
+ * The rows are also transposed into a where-used index: for each raw material, the exploded composition lines
+ * (and so the products) that consume it, in planning order.
+ */
+public final class CompiledPlan {
+
+    public static final int MIN_QUANTITY_SCALE = 3;
+    public static final int MAX_QUANTITY_SCALE = 6;
+
+    private static final Comparator<ProductEntry> PLANNING_ORDER = Comparator
+        .comparing(ProductEntry::value, Comparator.reverseOrder())
+        .thenComparing(ProductEntry::code);
+
+    private final ProductEntry[] products;
+    private final Map<Long, Integer> productIndex;
+    private final int[] compositionStart;
+    private final int[] compositionMaterial;
+    private final long[] compositionRequired;
+    private final int[] usageStart;
+    private final int[] usageLine;
+    private final int[] usageProduct;
+    private final long[] rawMaterialIds;
+    private final Map<Long, Integer> rawMaterialIndex;
+    private final int quantityScale;
+    private final long[] stock;
+
+    private CompiledPlan(
+        ProductEntry[] products,
+        Map<Long, Integer> productIndex,
+        int[] compositionStart,
+        int[] compositionMaterial,
+        long[] compositionRequired,
+        int[] usageStart,
+        int[] usageLine,
+        int[] usageProduct,
+        long[] rawMaterialIds,
+        Map<Long, Integer> rawMaterialIndex,
+        int quantityScale,
+        long[] stock
+    ) {
+        this.products = products;
+        this.productIndex = productIndex;
+        this.compositionStart = compositionStart;
+        this.compositionMaterial = compositionMaterial;
+        this.compositionRequired = compositionRequired;
+        this.usageStart = usageStart;
+        this.usageLine = usageLine;
+        this.usageProduct = usageProduct;
+        this.rawMaterialIds = rawMaterialIds;
+        this.rawMaterialIndex = rawMaterialIndex;
+        this.quantityScale = quantityScale;
+        this.stock = stock;
+    }
+
+    /**
+     * Compiles the catalog. A product is only planned when it has a composition and every component it uses
+     * is itself plannable; a cycle between components is rejected with an {@link IllegalStateException}.
+     */
+    public static CompiledPlan compile(
+        Collection<ProductEntry> products,
+        Map<Long, BigDecimal> stockByRawMaterial,
+        Collection<CompositionEntry> compositions
+    ) {
+        ProductEntry[] orderedProducts = products.toArray(ProductEntry[]::new);
+        Arrays.sort(orderedProducts, PLANNING_ORDER);
+        int productCount = orderedProducts.length;
+
+        Map<Long, Integer> productIndex = new HashMap<>(productCount * 2);
+        for (int i = 0; i < productCount; i++) {
+            productIndex.put(orderedProducts[i].id(), i);
+        }
+
+        Map<Long, Integer> rawMaterialIndex = new HashMap<>(stockByRawMaterial.size() * 2);
+        List<Long> rawMaterialIds = new ArrayList<>(stockByRawMaterial.keySet());
+        rawMaterialIds.sort(Comparator.naturalOrder());
+        rawMaterialIds.forEach(id -> rawMaterialIndex.put(id, rawMaterialIndex.size()));
+
+        List<List<CompositionEntry>> linesByProduct = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            linesByProduct.add(new ArrayList<>());
+        }
+        for (CompositionEntry line : compositions) {
+            Integer owner = productIndex.get(line.productId());
+            if (owner == null) {
+                continue;
+            }
+            if (line.rawMaterialId() != null && !rawMaterialIndex.containsKey(line.rawMaterialId())) {
+                rawMaterialIndex.put(line.rawMaterialId(), rawMaterialIndex.size());
+                rawMaterialIds.add(line.rawMaterialId());
+            }
+            linesByProduct.get(owner).add(line);
+        }
+
+        Explosion explosion = explode(orderedProducts, productIndex, rawMaterialIndex, linesByProduct);
+
+        int quantityScale = MIN_QUANTITY_SCALE;
+        for (BigDecimal[] requirements : explosion.quantities()) {
+            for (BigDecimal quantity : requirements) {
+                quantityScale = Math.max(quantityScale, quantity.stripTrailingZeros().scale());
+            }
+        }
+        quantityScale = Math.min(quantityScale, MAX_QUANTITY_SCALE);
+
+        int[] compositionStart = new int[productCount + 1];
+        for (int i = 0; i < productCount; i++) {
+            compositionStart[i + 1] = compositionStart[i] + explosion.materials()[i].length;
+        }
+
+        int[] compositionMaterial = new int[compositionStart[productCount]];
+        long[] compositionRequired = new long[compositionStart[productCount]];
+        for (int product = 0; product < productCount; product++) {
+            int[] materials = explosion.materials()[product];
+            BigDecimal[] quantities = explosion.quantities()[product];
+            for (int k = 0; k < materials.length; k++) {
+                int slot = compositionStart[product] + k;
+                compositionMaterial[slot] = materials[k];
+                compositionRequired[slot] = toScaled(
+                    quantities[k].setScale(quantityScale, RoundingMode.UP),
+                    quantityScale,
+                    "requirement of raw material %d per unit of product %s"
+                        .formatted(rawMaterialIds.get(materials[k]), orderedProducts[product].code())
+                );
+            }
+        }
+
+        long[] ids = rawMaterialIds.stream().mapToLong(Long::longValue).toArray();
+
+        int[] usageStart = new int[ids.length + 1];
+        for (int material : compositionMaterial) {
+            usageStart[material + 1]++;
+        }
+        for (int material = 0; material < ids.length; material++) {
+            usageStart[material + 1] += usageStart[material];
+        }
+        int[] usageLine = new int[compositionMaterial.length];
+        int[] usageProduct = new int[compositionMaterial.length];
+        int[] next = Arrays.copyOf(usageStart, ids.length);
+        for (int product = 0; product < productCount; product++) {
+            for (int line = compositionStart[product]; line < compositionStart[product + 1]; line++) {
+                int usage = next[compositionMaterial[line]]++;
+                usageLine[usage] = line;
+                usageProduct[usage] = product;
+            }
+        }
+
+        return new CompiledPlan(
+            orderedProducts,
+            Map.copyOf(productIndex),
+            compositionStart,
+            compositionMaterial,
+            compositionRequired,
+            usageStart,
+            usageLine,
+            usageProduct,
+            ids,
+            Map.copyOf(rawMaterialIndex),
+            quantityScale,
+            scaledStock(ids, stockByRawMaterial, quantityScale)
+        );
+    }
+
+    /**
+     * Flattens every product's composition into the raw materials one unit consumes. Products are visited in
+     * topological order (components first), so each product's flattened requirements are computed once and
+     * reused by every parent, whatever the depth of the hierarchy.
+     */
+    private static Explosion explode(
+        ProductEntry[] products,
+        Map<Long, Integer> productIndex,
+        Map<Long, Integer> rawMaterialIndex,
+        List<List<CompositionEntry>> linesByProduct
+    ) {
+        int productCount = products.length;
+        int[][] materials = new int[productCount][];
+        BigDecimal[][] quantities = new BigDecimal[productCount][];
+
+        for (int product : componentsFirstOrder(products, productIndex, linesByProduct)) {
+            List<CompositionEntry> lines = linesByProduct.get(product);
+            Map<Integer, BigDecimal> required = new TreeMap<>();
+            boolean plannable = !lines.isEmpty();
+
+            for (CompositionEntry line : lines) {
+                if (line.rawMaterialId() != null) {
+                    required.merge(rawMaterialIndex.get(line.rawMaterialId()), line.requiredQuantity(), BigDecimal::add);
+                    continue;
+                }
+                Integer component = productIndex.get(line.componentProductId());
+                if (component == null || materials[component].length == 0) {
+                    plannable = false;
+                    break;
+                }
+                int[] componentMaterials = materials[component];
+                BigDecimal[] componentQuantities = quantities[component];
+                for (int k = 0; k < componentMaterials.length; k++) {
+                    required.merge(
+                        componentMaterials[k],
+                        line.requiredQuantity().multiply(componentQuantities[k]),
+                        BigDecimal::add
+                    );
+                }
+            }
+
+            if (!plannable) {
+                required.clear();
+            }
+            materials[product] = required.keySet().stream().mapToInt(Integer::intValue).toArray();
+            quantities[product] = required.values().toArray(BigDecimal[]::new);
+        }
+
+        return new Explosion(materials, quantities);
+    }
+
+    /**
+     * Depth-first post-order over the component edges, so every component precedes the products using it.
+     */
+    private static int[] componentsFirstOrder(
+        ProductEntry[] products,
+        Map<Long, Integer> productIndex,
+        List<List<CompositionEntry>> linesByProduct
+    ) {
+        int productCount = products.length;
+        int[] order = new int[productCount];
+        int ordered = 0;
+        byte[] state = new byte[productCount];
+        int[] stack = new int[productCount];
+        int[] nextLine = new int[productCount];
+
+        for (int root = 0; root < productCount; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            state[root] = 1;
+            while (depth > 0) {
+                int product = stack[depth - 1];
+                List<CompositionEntry> lines = linesByProduct.get(product);
+                if (nextLine[product] == lines.size()) {
+                    state[product] = 2;
+                    order[ordered++] = product;
+                    depth--;
+                    continue;
+                }
+                Long componentId = lines.get(nextLine[product]++).componentProductId();
+                Integer component = componentId == null ? null : productIndex.get(componentId);
+                if (component == null || state[component] == 2) {
+                    continue;
+                }
+                if (state[component] == 1) {
+                    throw new IllegalStateException(
+                        "Product compositions contain a cycle through product " + products[component].code()
+                    );
+                }
+                state[component] = 1;
+                stack[depth++] = component;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Returns a plan that shares this plan's structure with a new stock vector, or {@code null} when the
+     * stock map references raw materials this plan has no index for.
+     */
+    public CompiledPlan withStock(Map<Long, BigDecimal> stockByRawMaterial) {
+        for (Long id : stockByRawMaterial.keySet()) {
+            if (!rawMaterialIndex.containsKey(id)) {
+                return null;
+            }
+        }
+        return new CompiledPlan(
+            products,
+            productIndex,
+            compositionStart,
+            compositionMaterial,
+            compositionRequired,
+            usageStart,
+            usageLine,
+            usageProduct,
+            rawMaterialIds,
+            rawMaterialIndex,
+            quantityScale,
+            scaledStock(rawMaterialIds, stockByRawMaterial, quantityScale)
+        );
+    }
+
+    /**
+     * Runs the value-descending greedy allocation against {@code virtualStock}, which is consumed in place,
+     * and returns the quantity chosen for each product index.
+     */
+    public long[] allocateGreedy(long[] virtualStock) {
+        return allocateGreedy(virtualStock, null);
+    }
+
+    /**
+     * Same as {@link #allocateGreedy(long[])}, reporting each positive allocation to {@code listener}
+     * (when not {@code null}) as soon as the loop commits it, in planning order.
+     */
+    public long[] allocateGreedy(long[] virtualStock, AllocationListener listener) {
+        long[] quantities = new long[products.length];
+        try {
+            for (int product = 0; product < products.length; product++) {
+                int from = compositionStart[product];
+                int to = compositionStart[product + 1];
+                if (from == to) {
+                    continue;
+                }
+
+                long maxQuantity = Long.MAX_VALUE;
+                for (int line = from; line < to; line++) {
+                    long units = virtualStock[compositionMaterial[line]] / compositionRequired[line];
+                    if (units < maxQuantity) {
+                        maxQuantity = units;
+                    }
+                }
+                if (maxQuantity <= 0) {
+                    continue;
+                }
+
+                for (int line = from; line < to; line++) {
+                    virtualStock[compositionMaterial[line]] -= Math.multiplyExact(maxQuantity, compositionRequired[line]);
+                }
+                quantities[product] = maxQuantity;
+                if (listener != null) {
+                    listener.allocated(product, maxQuantity);
+                }
+            }
+        } catch (ArithmeticException ex) {
+            throw new IllegalStateException("Production plan exceeds the fixed-point range of the planner", ex);
+        }
+        return quantities;
+    }
+
+    /**
+     * Scaled raw material requirements of producing {@code quantities} (indexed by product): a single pass over
+     * the composition rows, i.e. the quantity vector multiplied by the compiled bill of materials.
+     *
+     * @throws ArithmeticException when a requirement does not fit the fixed-point range
+     */
+    public long[] requirements(long[] quantities) {
+        long[] required = new long[rawMaterialIds.length];
+        for (int product = 0; product < quantities.length; product++) {
+            long quantity = quantities[product];
+            if (quantity == 0) {
+                continue;
+            }
+            for (int line = compositionStart[product]; line < compositionStart[product + 1]; line++) {
+                int material = compositionMaterial[line];
+                required[material] = Math.addExact(required[material], Math.multiplyExact(quantity, compositionRequired[line]));
+            }
+        }
+        return required;
+    }
+
+    /**
+     * Units of the product that {@code stock} alone could build, ignoring every other product; {@code 0} for a
+     * product without composition.
+     */
+    public long buildable(int product, long[] stock) {
+        int from = compositionStart[product];
+        int to = compositionStart[product + 1];
+        if (from == to) {
+            return 0;
+        }
+        long maxQuantity = Long.MAX_VALUE;
+        for (int line = from; line < to; line++) {
+            maxQuantity = Math.min(maxQuantity, stock[compositionMaterial[line]] / compositionRequired[line]);
+        }
+        return maxQuantity;
+    }
+
+    /**
+     * Returns a fresh copy of the persisted stock, scaled like every other quantity in this plan.
+     */
+    public long[] stockVector() {
+        return stock.clone();
+    }
+
+    public int productCount() {
+        return products.length;
+    }
+
+    public ProductEntry product(int index) {
+        return products[index];
+    }
+
+    /**
+     * Returns the dense index of a product, or {@code -1} when it is unknown to this plan.
+     */
+    public int productIndex(Long productId) {
+        return productIndex.getOrDefault(productId, -1);
+    }
+
+    public int rawMaterialCount() {
+        return rawMaterialIds.length;
+    }
+
+    public long rawMaterialId(int index) {
+        return rawMaterialIds[index];
+    }
+
+    /**
+     * Returns the dense index of a raw material, or {@code -1} when it is unknown to this plan.
+     */
+    public int rawMaterialIndex(Long rawMaterialId) {
+        return rawMaterialIndex.getOrDefault(rawMaterialId, -1);
+    }
+
+    public int compositionStart(int productIndex) {
+        return compositionStart[productIndex];
+    }
+
+    public int compositionEnd(int productIndex) {
+        return compositionStart[productIndex + 1];
+    }
+
+    public int compositionMaterial(int line) {
+        return compositionMaterial[line];
+    }
+
+    public long compositionRequired(int line) {
+        return compositionRequired[line];
+    }
+
+    /**
+     * First where-used entry of the raw material; its entries run up to {@link #usageEnd(int)}.
+     */
+    public int usageStart(int rawMaterial) {
+        return usageStart[rawMaterial];
+    }
+
+    public int usageEnd(int rawMaterial) {
+        return usageStart[rawMaterial + 1];
+    }
+
+    /**
+     * Composition line (an index for {@link #compositionRequired(int)}) of a where-used entry.
+     */
+    public int usageLine(int usage) {
+        return usageLine[usage];
+    }
+
+    public int usageProduct(int usage) {
+        return usageProduct[usage];
+    }
+
+    /**
+     * Number of decimal places every scaled quantity of this plan carries.
+     */
+    public int quantityScale() {
+        return quantityScale;
+    }
+
+    public long toScaled(BigDecimal quantity, String description) {
+        return toScaled(quantity, quantityScale, description);
+    }
+
+    public BigDecimal fromScaled(long quantity) {
+        return BigDecimal.valueOf(quantity, quantityScale);
+    }
+
+    private static long toScaled(BigDecimal quantity, int scale, String description) {
+        try {
+            return quantity.setScale(scale).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalStateException(
+                "Value %s for %s does not fit the planner's fixed-point range (%d decimal places, 64-bit)"
+                    .formatted(quantity.toPlainString(), description, scale),
+                ex
+            );
+        }
+    }
+
+    private static long[] scaledStock(long[] rawMaterialIds, Map<Long, BigDecimal> stockByRawMaterial, int scale) {
+        long[] scaled = new long[rawMaterialIds.length];
+        for (int i = 0; i < rawMaterialIds.length; i++) {
+            BigDecimal quantity = stockByRawMaterial.get(rawMaterialIds[i]);
+            scaled[i] = quantity == null ? 0 : toScaled(quantity, scale, "stock of raw material " + rawMaterialIds[i]);
+        }
+        return scaled;
+    }
+
+    @FunctionalInterface
+    public interface AllocationListener {
+
+        void allocated(int productIndex, long quantity);
+    }
+
+    public record ProductEntry(Long id, String code, String name, BigDecimal value) {
+    }
+
+    /**
+     * One composition line: {@code requiredQuantity} units of either a raw material or a component product.
+     */
+    public record CompositionEntry(
+        Long id,
+        Long productId,
+        Long rawMaterialId,
+        Long componentProductId,
+        BigDecimal requiredQuantity
+    ) {
+    }
+
+    private record Explosion(int[][] materials, BigDecimal[][] quantities) {
+    }
+}
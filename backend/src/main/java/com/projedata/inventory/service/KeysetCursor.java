@@ -0,0 +1,41 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque page cursors: the sort key of the last row of a page, base64url-encoded. Clients pass the value back
+ * unchanged as {@code after}; nothing about its content is part of the API.
+ */
+final class KeysetCursor {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private KeysetCursor() {
+    }
+
+    static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+
+    static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (requested < 1 || requested > MAX_LIMIT) {
+            throw new BadRequestException("Page limit must be between 1 and %d".formatted(MAX_LIMIT));
+        }
+        return requested;
+    }
+}
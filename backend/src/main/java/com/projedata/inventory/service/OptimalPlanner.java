@@ -0,0 +1,69 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the exact (branch-and-bound) planner on the shared planning pool within a bounded time budget.
+ */
+@Component
+public class OptimalPlanner {
+
+    private static final int GAP_SCALE = 6;
+
+    private final ForkJoinPool planningPool;
+    private final Duration defaultTimeBudget;
+    private final Duration maxTimeBudget;
+
+    public OptimalPlanner(
+        ForkJoinPool planningPool,
+        @Value("${app.planning.optimal.time-budget:2s}") Duration defaultTimeBudget,
+        @Value("${app.planning.optimal.max-time-budget:30s}") Duration maxTimeBudget
+    ) {
+        this.planningPool = planningPool;
+        this.defaultTimeBudget = defaultTimeBudget;
+        this.maxTimeBudget = maxTimeBudget;
+    }
+
+    public Result plan(CompiledPlan plan, long[] stock, Duration requestedTimeBudget) {
+        Duration timeBudget = resolveTimeBudget(requestedTimeBudget);
+        BranchAndBoundSolver.Solution solution = BranchAndBoundSolver.solve(
+            plan,
+            stock,
+            planningPool,
+            System.nanoTime() + timeBudget.toNanos()
+        );
+        return new Result(solution.quantities(), optimalityGap(solution));
+    }
+
+    private Duration resolveTimeBudget(Duration requested) {
+        if (requested == null) {
+            return defaultTimeBudget;
+        }
+        if (requested.isNegative() || requested.isZero()) {
+            throw new BadRequestException("Time budget must be greater than zero");
+        }
+        return requested.compareTo(maxTimeBudget) > 0 ? maxTimeBudget : requested;
+    }
+
+    private BigDecimal optimalityGap(BranchAndBoundSolver.Solution solution) {
+        if (solution.complete() || solution.upperBound() <= 0) {
+            return BigDecimal.ZERO.setScale(GAP_SCALE);
+        }
+        double gap = (solution.upperBound() - solution.value()) / solution.upperBound();
+        return BigDecimal.valueOf(Math.max(gap, 0.0)).setScale(GAP_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Chosen quantity per compiled product index and the relative gap between the plan's value and the best
+     * proven upper bound ({@code 0} when the plan is proven optimal).
+     */
+    public record Result(long[] quantities, BigDecimal optimalityGap) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.projedata.inventory.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the planning path. Every meter is registered up front, so recording a phase on the hot
+ * path costs a {@link System#nanoTime()} pair and one timer update, without tag lookups.
+ */
+@Component
+public class PlanningMetrics {
+
+    public enum Phase {
+        LOAD_PRODUCTS,
+        LOAD_STOCK,
+        LOAD_COMPOSITIONS,
+        COMPILE,
+        RESTOCK,
+        ALLOCATE,
+        OPTIMAL_SEARCH,
+        REQUIREMENTS,
+        MAP
+    }
+
+    public enum Refresh {
+        FULL,
+        DELTA,
+        RESTOCK,
+        NONE
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Map<Refresh, Counter> refreshCounters = new EnumMap<>(Refresh.class);
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public PlanningMetrics(MeterRegistry registry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("planning.phase")
+                .description("Time spent in each phase of building a production plan")
+                .tag("phase", tagValue(phase))
+                .register(registry));
+        }
+        for (Refresh refresh : Refresh.values()) {
+            refreshCounters.put(refresh, Counter.builder("planning.model.refresh")
+                .description("Planning model snapshots by the kind of refresh they needed")
+                .tag("kind", tagValue(refresh))
+                .register(registry));
+        }
+        cacheHits = Counter.builder("planning.suggestions.cache").tag("result", "hit").register(registry);
+        cacheMisses = Counter.builder("planning.suggestions.cache").tag("result", "miss").register(registry);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a {@link System#nanoTime()} reading.
+     */
+    public void record(Phase phase, long startNanos) {
+        phaseTimers.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void refreshed(Refresh refresh) {
+        refreshCounters.get(refresh).increment();
+    }
+
+    public void suggestionsCache(boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,147 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.BuildabilitySort;
+import com.projedata.inventory.dto.CursorPage;
+import com.projedata.inventory.dto.ProductBuildabilityItem;
+import com.projedata.inventory.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the {@code product_buildability} summary: how many units of each product the current stock could build on
+ * its own and the raw material that limits it. The table is kept current by database triggers, refreshed as each
+ * writing transaction commits (see the {@code V6} and {@code V7} migrations), so a read is an indexed range scan,
+ * whichever order is requested: by product code, by buildable quantity, or grouped by limiting raw material
+ * (products without one last).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProductBuildabilityService {
+
+    private static final String SELECT = """
+        SELECT p.id, p.code, p.name, p.value, pb.buildable_quantity, pb.limiting_raw_material_id, rm.code AS limiting_code
+        FROM product_buildability pb
+        JOIN products p ON p.id = pb.product_id
+        LEFT JOIN raw_materials rm ON rm.id = pb.limiting_raw_material_id
+        WHERE pb.buildable_quantity BETWEEN ? AND ?
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns one page, in the given order, of the products whose buildable quantity is within
+     * {@code [minQuantity, maxQuantity]}; either bound may be {@code null}.
+     */
+    public CursorPage<ProductBuildabilityItem> findPage(
+        BuildabilitySort sort,
+        Integer limit,
+        String after,
+        Long minQuantity,
+        Long maxQuantity
+    ) {
+        int pageSize = KeysetCursor.limit(limit);
+        long min = minQuantity == null ? 0 : minQuantity;
+        long max = maxQuantity == null ? Long.MAX_VALUE : maxQuantity;
+        if (min < 0 || max < min) {
+            throw new BadRequestException("Quantity filter must satisfy 0 <= minQuantity <= maxQuantity");
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>(List.of(min, max));
+        if (after != null) {
+            appendAfter(sort, after, sql, args);
+        }
+        sql.append(orderBy(sort)).append(" LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<ProductBuildabilityItem> items = jdbcTemplate.query(
+            sql.toString(),
+            (rs, rowNum) -> new ProductBuildabilityItem(
+                rs.getLong("id"),
+                rs.getString("code"),
+                rs.getString("name"),
+                rs.getBigDecimal("value"),
+                rs.getLong("buildable_quantity"),
+                rs.getObject("limiting_raw_material_id", Long.class),
+                rs.getString("limiting_code")
+            ),
+            args.toArray()
+        );
+
+        if (items.size() <= pageSize) {
+            return new CursorPage<>(items, null);
+        }
+        return new CursorPage<>(
+            List.copyOf(items.subList(0, pageSize)),
+            KeysetCursor.encode(cursorKey(sort, items.get(pageSize - 1)))
+        );
+    }
+
+    private static String orderBy(BuildabilitySort sort) {
+        return switch (sort) {
+            case CODE -> " ORDER BY p.code";
+            case QUANTITY -> " ORDER BY pb.buildable_quantity, pb.product_id";
+            case BOTTLENECK -> " ORDER BY pb.limiting_raw_material_id, pb.buildable_quantity, pb.product_id";
+        };
+    }
+
+    private static String cursorKey(BuildabilitySort sort, ProductBuildabilityItem last) {
+        return switch (sort) {
+            case CODE -> last.productCode();
+            case QUANTITY -> last.buildableQuantity() + ":" + last.productId();
+            case BOTTLENECK -> (last.limitingRawMaterialId() == null ? "" : last.limitingRawMaterialId())
+                + ":" + last.buildableQuantity() + ":" + last.productId();
+        };
+    }
+
+    /**
+     * Restricts the query to rows after the cursor. Limiting raw materials sort with {@code NULL} last, which a row
+     * comparison cannot express, so the bottleneck order spells the condition out.
+     */
+    private static void appendAfter(BuildabilitySort sort, String cursor, StringBuilder sql, List<Object> args) {
+        String[] key = KeysetCursor.decode(cursor).split(":", -1);
+        try {
+            switch (sort) {
+                case CODE -> {
+                    sql.append(" AND p.code > ?");
+                    args.add(String.join(":", key));
+                }
+                case QUANTITY -> {
+                    requireParts(key, 2);
+                    sql.append(" AND (pb.buildable_quantity, pb.product_id) > (?, ?)");
+                    args.add(Long.parseLong(key[0]));
+                    args.add(Long.parseLong(key[1]));
+                }
+                case BOTTLENECK -> {
+                    requireParts(key, 3);
+                    if (key[0].isEmpty()) {
+                        sql.append(" AND pb.limiting_raw_material_id IS NULL"
+                            + " AND (pb.buildable_quantity, pb.product_id) > (?, ?)");
+                    } else {
+                        long material = Long.parseLong(key[0]);
+                        sql.append(" AND (pb.limiting_raw_material_id > ? OR pb.limiting_raw_material_id IS NULL"
+                            + " OR (pb.limiting_raw_material_id = ? AND (pb.buildable_quantity, pb.product_id) > (?, ?)))");
+                        args.add(material);
+                        args.add(material);
+                    }
+                    args.add(Long.parseLong(key[1]));
+                    args.add(Long.parseLong(key[2]));
+                }
+            }
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+
+    private static void requireParts(String[] key, int parts) {
+        if (key.length != parts) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.projedata.inventory.dto.ProductMaterialResponse;
 import com.projedata.inventory.entity.Product;
 import com.projedata.inventory.entity.ProductRawMaterial;
 import com.projedata.inventory.entity.RawMaterial;
+import com.projedata.inventory.exception.BadRequestException;
 import com.projedata.inventory.exception.ConflictException;
 import com.projedata.inventory.exception.ResourceNotFoundException;
 import com.projedata.inventory.repository.ProductRawMaterialRepository;
@@ -12,60 +13,148 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProductMaterialService {
 
+    private static final long COMPONENT_GRAPH_LOCK_KEY = 0x70726d5f636f6d70L;
+
     private final ProductRawMaterialRepository productRawMaterialRepository;
     private final ProductService productService;
     private final RawMaterialService rawMaterialService;
+    private final ProductionPlanModel productionPlanModel;
 
     public List<ProductMaterialResponse> findByProductId(Long productId) {
-        return productRawMaterialRepository.findByProductIdOrderByIdAsc(productId).stream()
-            .map(this::toResponse)
-            .toList();
+        return productRawMaterialRepository.findResponsesByProductId(productId);
     }
 
     @Transactional
     public ProductMaterialResponse create(ProductMaterialRequest request) {
+        validateSingleComponent(request);
         Product product = productService.getEntityById(request.productId());
-        RawMaterial rawMaterial = rawMaterialService.getEntityById(request.rawMaterialId());
+        RawMaterial rawMaterial = findRawMaterial(request);
+        Product componentProduct = findComponentProduct(request);
 
-        validateDuplicateAssociation(request.productId(), request.rawMaterialId(), null);
+        validateDuplicateAssociation(request, null);
+        validateAcyclic(product, componentProduct);
 
         ProductRawMaterial productRawMaterial = ProductRawMaterial.builder()
             .product(product)
             .rawMaterial(rawMaterial)
+            .componentProduct(componentProduct)
             .requiredQuantity(request.requiredQuantity())
             .build();
 
-        return toResponse(productRawMaterialRepository.save(productRawMaterial));
+        ProductRawMaterial saved = productRawMaterialRepository.save(productRawMaterial);
+        productionPlanModel.compositionChanged(saved.getId());
+        return toResponse(saved);
+    }
+
+    /**
+     * Creates every composition line in one transaction. Referenced products and raw materials are loaded with
+     * one query each, duplicates are checked against the existing lines of the affected products at once, and
+     * the rows are inserted in JDBC batches. Component lines are checked for cycles after the flush, so a cycle
+     * closed by lines of the same batch is rejected as well.
+     */
+    @Transactional
+    public List<ProductMaterialResponse> createAll(List<ProductMaterialRequest> requests) {
+        requests.forEach(this::validateSingleComponent);
+
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> rawMaterialIds = new HashSet<>();
+        for (ProductMaterialRequest request : requests) {
+            productIds.add(request.productId());
+            if (request.componentProductId() != null) {
+                if (request.componentProductId().equals(request.productId())) {
+                    throw new BadRequestException("A product cannot be a component of itself");
+                }
+                productIds.add(request.componentProductId());
+            } else {
+                rawMaterialIds.add(request.rawMaterialId());
+            }
+        }
+        Map<Long, Product> products = productService.getEntitiesByIds(productIds);
+        Map<Long, RawMaterial> rawMaterials = rawMaterialService.getEntitiesByIds(rawMaterialIds);
+
+        Set<String> lineKeys = new HashSet<>();
+        for (ProductMaterialRequest request : requests) {
+            if (!lineKeys.add(lineKey(request.productId(), request.rawMaterialId(), request.componentProductId()))) {
+                throw new ConflictException(
+                    "Product %d lists the same raw material or component more than once".formatted(request.productId())
+                );
+            }
+        }
+        for (ProductRawMaterial existing : productRawMaterialRepository.findByProductIdIn(productIds)) {
+            Long rawMaterialId = existing.getRawMaterial() == null ? null : existing.getRawMaterial().getId();
+            Long componentProductId = existing.getComponentProduct() == null ? null : existing.getComponentProduct().getId();
+            if (lineKeys.contains(lineKey(existing.getProduct().getId(), rawMaterialId, componentProductId))) {
+                throw new ConflictException(
+                    "Product %d already lists raw material or component %d"
+                        .formatted(existing.getProduct().getId(), rawMaterialId != null ? rawMaterialId : componentProductId)
+                );
+            }
+        }
+
+        boolean hasComponents = requests.stream().anyMatch(request -> request.componentProductId() != null);
+        if (hasComponents) {
+            productRawMaterialRepository.lockComponentGraph(COMPONENT_GRAPH_LOCK_KEY);
+        }
+
+        List<ProductRawMaterial> lines = requests.stream()
+            .map(request -> ProductRawMaterial.builder()
+                .product(products.get(request.productId()))
+                .rawMaterial(request.rawMaterialId() == null ? null : rawMaterials.get(request.rawMaterialId()))
+                .componentProduct(request.componentProductId() == null ? null : products.get(request.componentProductId()))
+                .requiredQuantity(request.requiredQuantity())
+                .build())
+            .toList();
+        List<ProductRawMaterial> saved = productRawMaterialRepository.saveAll(lines);
+        List<Long> savedIds = saved.stream().map(ProductRawMaterial::getId).toList();
+
+        if (hasComponents) {
+            productRawMaterialRepository.flush();
+            productRawMaterialRepository.findProductOnComponentCycle(savedIds).ifPresent(productId -> {
+                throw new ConflictException(
+                    "Product '%s' would become a component of itself".formatted(products.get(productId).getCode())
+                );
+            });
+        }
+
+        productionPlanModel.compositionsChanged(savedIds);
+        return saved.stream().map(this::toResponse).toList();
     }
 
     @Transactional
     public ProductMaterialResponse update(Long id, ProductMaterialRequest request) {
+        validateSingleComponent(request);
         ProductRawMaterial existing = getEntityById(id);
         Product product = productService.getEntityById(request.productId());
-        RawMaterial rawMaterial = rawMaterialService.getEntityById(request.rawMaterialId());
+        RawMaterial rawMaterial = findRawMaterial(request);
+        Product componentProduct = findComponentProduct(request);
 
-        validateDuplicateAssociation(request.productId(), request.rawMaterialId(), id);
+        validateDuplicateAssociation(request, id);
+        validateAcyclic(product, componentProduct);
 
         existing.setProduct(product);
         existing.setRawMaterial(rawMaterial);
+        existing.setComponentProduct(componentProduct);
         existing.setRequiredQuantity(request.requiredQuantity());
 
-        return toResponse(productRawMaterialRepository.save(existing));
+        ProductRawMaterial saved = productRawMaterialRepository.save(existing);
+        productionPlanModel.compositionChanged(id);
+        return toResponse(saved);
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!productRawMaterialRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product material with id %d was not found".formatted(id));
-        }
-        productRawMaterialRepository.deleteById(id);
+        productRawMaterialRepository.delete(getEntityById(id));
+        productionPlanModel.compositionChanged(id);
     }
 
     public ProductRawMaterial getEntityById(Long id) {
@@ -73,24 +162,77 @@ public class ProductMaterialService {
             .orElseThrow(() -> new ResourceNotFoundException("Product material with id %d was not found".formatted(id)));
     }
 
-    private void validateDuplicateAssociation(Long productId, Long rawMaterialId, Long currentId) {
-        productRawMaterialRepository.findByProductIdAndRawMaterialId(productId, rawMaterialId)
+    private static String lineKey(Long productId, Long rawMaterialId, Long componentProductId) {
+        return rawMaterialId != null ? productId + ":m" + rawMaterialId : productId + ":p" + componentProductId;
+    }
+
+    private void validateSingleComponent(ProductMaterialRequest request) {
+        if ((request.rawMaterialId() == null) == (request.componentProductId() == null)) {
+            throw new BadRequestException("Exactly one of rawMaterialId or componentProductId is required");
+        }
+    }
+
+    private RawMaterial findRawMaterial(ProductMaterialRequest request) {
+        return request.rawMaterialId() == null ? null : rawMaterialService.getEntityById(request.rawMaterialId());
+    }
+
+    private Product findComponentProduct(ProductMaterialRequest request) {
+        return request.componentProductId() == null ? null : productService.getEntityById(request.componentProductId());
+    }
+
+    private void validateDuplicateAssociation(ProductMaterialRequest request, Long currentId) {
+        if (request.rawMaterialId() != null) {
+            productRawMaterialRepository.findByProductIdAndRawMaterialId(request.productId(), request.rawMaterialId())
+                .ifPresent(found -> {
+                    if (currentId == null || !found.getId().equals(currentId)) {
+                        throw new ConflictException("Esta matéria-prima já está associada ao produto selecionado");
+                    }
+                });
+            return;
+        }
+        productRawMaterialRepository.findByProductIdAndComponentProductId(request.productId(), request.componentProductId())
             .ifPresent(found -> {
                 if (currentId == null || !found.getId().equals(currentId)) {
-                    throw new ConflictException("Esta matéria-prima já está associada ao produto selecionado");
+                    throw new ConflictException("Este componente já está associado ao produto selecionado");
                 }
             });
     }
 
+    /**
+     * Rejects a component that is the product itself or already (transitively) uses it. The check runs under a
+     * transaction-scoped lock so that two concurrent edits cannot close a cycle between them.
+     */
+    private void validateAcyclic(Product product, Product componentProduct) {
+        if (componentProduct == null) {
+            return;
+        }
+        if (componentProduct.getId().equals(product.getId())) {
+            throw new BadRequestException("A product cannot be a component of itself");
+        }
+
+        productRawMaterialRepository.lockComponentGraph(COMPONENT_GRAPH_LOCK_KEY);
+        if (productRawMaterialRepository.existsComponentPath(componentProduct.getId(), product.getId())) {
+            throw new ConflictException(
+                "Product '%s' cannot be a component of '%s' because it already uses it"
+                    .formatted(componentProduct.getCode(), product.getCode())
+            );
+        }
+    }
+
     private ProductMaterialResponse toResponse(ProductRawMaterial productRawMaterial) {
+        RawMaterial rawMaterial = productRawMaterial.getRawMaterial();
+        Product componentProduct = productRawMaterial.getComponentProduct();
         return new ProductMaterialResponse(
             productRawMaterial.getId(),
             productRawMaterial.getProduct().getId(),
             productRawMaterial.getProduct().getCode(),
             productRawMaterial.getProduct().getName(),
-            productRawMaterial.getRawMaterial().getId(),
-            productRawMaterial.getRawMaterial().getCode(),
-            productRawMaterial.getRawMaterial().getName(),
+            rawMaterial == null ? null : rawMaterial.getId(),
+            rawMaterial == null ? null : rawMaterial.getCode(),
+            rawMaterial == null ? null : rawMaterial.getName(),
+            componentProduct == null ? null : componentProduct.getId(),
+            componentProduct == null ? null : componentProduct.getCode(),
+            componentProduct == null ? null : componentProduct.getName(),
             productRawMaterial.getRequiredQuantity()
         );
     }
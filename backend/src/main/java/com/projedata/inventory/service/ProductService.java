@@ -1,17 +1,26 @@
 package com.projedata.inventory.service;
 
+import com.projedata.inventory.dto.CursorPage;
 import com.projedata.inventory.dto.ProductRequest;
 import com.projedata.inventory.dto.ProductResponse;
 import com.projedata.inventory.entity.Product;
+import com.projedata.inventory.exception.BadRequestException;
 import com.projedata.inventory.exception.ConflictException;
 import com.projedata.inventory.exception.ResourceNotFoundException;
 import com.projedata.inventory.repository.ProductRawMaterialRepository;
 import com.projedata.inventory.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,15 +29,43 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final ProductionPlanModel productionPlanModel;
 
     public List<ProductResponse> findAll() {
-        return productRepository.findAllByOrderByValueDescCodeAsc().stream()
-            .map(this::toResponse)
-            .toList();
+        return productRepository.findAllResponses();
+    }
+
+    /**
+     * Keyset page in the planner's order (value descending, then code); {@code after} is the cursor returned
+     * with the previous page.
+     */
+    public CursorPage<ProductResponse> findPage(Integer limit, String after) {
+        int pageSize = KeysetCursor.limit(limit);
+        Limit fetch = Limit.of(pageSize + 1);
+        List<ProductResponse> products;
+        if (after == null) {
+            products = productRepository.findResponses(fetch);
+        } else {
+            String[] key = KeysetCursor.decode(after).split(":", 2);
+            if (key.length != 2) {
+                throw new BadRequestException("Invalid page cursor");
+            }
+            products = productRepository.findResponsesAfter(parseCursorValue(key[0]), key[1], fetch);
+        }
+
+        if (products.size() <= pageSize) {
+            return new CursorPage<>(products, null);
+        }
+        ProductResponse last = products.get(pageSize - 1);
+        return new CursorPage<>(
+            List.copyOf(products.subList(0, pageSize)),
+            KeysetCursor.encode(last.value().toPlainString() + ":" + last.code())
+        );
     }
 
     public ProductResponse findById(Long id) {
-        return toResponse(getEntityById(id));
+        return productRepository.findResponseById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Product with id %d was not found".formatted(id)));
     }
 
     @Transactional
@@ -41,7 +78,30 @@ public class ProductService {
             .value(request.value())
             .build();
 
-        return toResponse(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        productionPlanModel.productChanged(saved.getId());
+        return toResponse(saved);
+    }
+
+    /**
+     * Creates every product in one transaction: codes are checked in a single query and the rows are
+     * inserted in JDBC batches.
+     */
+    @Transactional
+    public List<ProductResponse> createAll(List<ProductRequest> requests) {
+        validateBatchCodes(requests.stream().map(request -> request.code().trim()).toList());
+
+        List<Product> products = requests.stream()
+            .map(request -> Product.builder()
+                .code(request.code().trim())
+                .name(request.name().trim())
+                .value(request.value())
+                .build())
+            .toList();
+
+        List<Product> saved = productRepository.saveAll(products);
+        productionPlanModel.productsChanged(saved.stream().map(Product::getId).toList());
+        return saved.stream().map(this::toResponse).toList();
     }
 
     @Transactional
@@ -53,20 +113,25 @@ public class ProductService {
         product.setName(request.name().trim());
         product.setValue(request.value());
 
-        return toResponse(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        productionPlanModel.productChanged(id);
+        return toResponse(saved);
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product with id %d was not found".formatted(id));
+        Product product = getEntityById(id);
+
+        if (productRawMaterialRepository.existsByComponentProductId(id)) {
+            throw new ConflictException("Cannot delete product because it is a component of another product");
         }
 
         if (productRawMaterialRepository.existsByProductId(id)) {
             throw new ConflictException("Cannot delete product because it has associated raw materials");
         }
 
-        productRepository.deleteById(id);
+        productRepository.delete(product);
+        productionPlanModel.productChanged(id);
     }
 
     public Product getEntityById(Long id) {
@@ -74,6 +139,17 @@ public class ProductService {
             .orElseThrow(() -> new ResourceNotFoundException("Product with id %d was not found".formatted(id)));
     }
 
+    public Map<Long, Product> getEntitiesByIds(Collection<Long> ids) {
+        Map<Long, Product> found = new HashMap<>();
+        productRepository.findAllById(ids).forEach(product -> found.put(product.getId(), product));
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                throw new ResourceNotFoundException("Product with id %d was not found".formatted(id));
+            }
+        }
+        return found;
+    }
+
     private void validateCodeUniqueness(String code, Long id) {
         String normalizedCode = code.trim();
         boolean exists = id == null
@@ -85,6 +161,28 @@ public class ProductService {
         }
     }
 
+    private void validateBatchCodes(List<String> codes) {
+        Set<String> seen = new HashSet<>();
+        for (String code : codes) {
+            if (!seen.add(code)) {
+                throw new ConflictException("Product code '%s' appears more than once in the batch".formatted(code));
+            }
+        }
+
+        List<String> existing = productRepository.findExistingCodes(seen);
+        if (!existing.isEmpty()) {
+            throw new ConflictException("Product codes already in use: %s".formatted(String.join(", ", existing)));
+        }
+    }
+
+    private BigDecimal parseCursorValue(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+
     private ProductResponse toResponse(Product product) {
         return new ProductResponse(
             product.getId(),
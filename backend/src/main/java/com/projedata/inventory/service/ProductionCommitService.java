@@ -0,0 +1,201 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.ProductionCommitItem;
+import com.projedata.inventory.dto.ProductionCommitRequest;
+import com.projedata.inventory.dto.ProductionCommitResponse;
+import com.projedata.inventory.dto.ProductionSuggestionItem;
+import com.projedata.inventory.dto.StockConsumption;
+import com.projedata.inventory.dto.StockShortage;
+import com.projedata.inventory.exception.BadRequestException;
+import com.projedata.inventory.exception.InsufficientStockException;
+import com.projedata.inventory.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Turns a production plan into real stock consumption. The raw materials the plan needs are locked in id order
+ * (so concurrent commits queue instead of deadlocking), checked against the exploded requirements and decremented
+ * together with their ledger rows in one statement. Either the whole plan is committed or nothing is.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductionCommitService {
+
+    static final String COMMIT_REASON = "production commit";
+
+    private static final int STOCK_SCALE = 3;
+
+    private static final String LOCK_RAW_MATERIALS = """
+        SELECT id, code, stock_quantity
+        FROM raw_materials
+        WHERE id = ANY (?)
+        ORDER BY id
+        FOR UPDATE
+        """;
+
+    private static final String CONSUME_STOCK = """
+        WITH consumption AS (
+            SELECT raw_material_id, quantity
+            FROM unnest(?::bigint[], ?::numeric[]) AS c(raw_material_id, quantity)
+        ),
+        applied AS (
+            UPDATE raw_materials r
+            SET stock_quantity = r.stock_quantity - c.quantity, updated_at = CURRENT_TIMESTAMP
+            FROM consumption c
+            WHERE r.id = c.raw_material_id
+            RETURNING r.id, r.code, c.quantity, r.stock_quantity
+        ),
+        ledger AS (
+            INSERT INTO stock_movements (raw_material_id, quantity_delta, resulting_quantity, reason)
+            SELECT id, -quantity, stock_quantity, ? FROM applied
+        )
+        SELECT id, code, quantity, stock_quantity FROM applied ORDER BY id
+        """;
+
+    private final ProductionPlanModel productionPlanModel;
+    private final CatalogCache catalogCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Commits the given items, or the current greedy plan when the request has none. Requirements with more
+     * decimal places than the stock columns are rounded up, so a commit never consumes less than it needs.
+     */
+    @Transactional
+    public ProductionCommitResponse commit(ProductionCommitRequest request) {
+        CompiledPlan plan = productionPlanModel.snapshot();
+        long[] quantities = request == null || request.items() == null || request.items().isEmpty()
+            ? plan.allocateGreedy(plan.stockVector())
+            : requestedQuantities(plan, request.items());
+
+        List<ProductionSuggestionItem> items = new ArrayList<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+        for (int product = 0; product < quantities.length; product++) {
+            if (quantities[product] > 0) {
+                ProductionSuggestionItem item = ProductionPlanService.toItem(plan.product(product), quantities[product]);
+                items.add(item);
+                totalValue = totalValue.add(item.subtotalValue());
+            }
+        }
+
+        SortedMap<Long, BigDecimal> required = requiredStock(plan, quantities);
+        if (required.isEmpty()) {
+            return new ProductionCommitResponse(List.copyOf(items), totalValue, List.of());
+        }
+
+        Long[] rawMaterialIds = required.keySet().toArray(Long[]::new);
+        BigDecimal[] consumed = required.values().toArray(BigDecimal[]::new);
+
+        List<StockShortage> shortages = findShortages(required, lock(rawMaterialIds));
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException("Not enough stock to commit the production plan", shortages);
+        }
+
+        List<StockConsumption> consumption = jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(CONSUME_STOCK);
+                statement.setArray(1, connection.createArrayOf("bigint", rawMaterialIds));
+                statement.setArray(2, connection.createArrayOf("numeric", consumed));
+                statement.setString(3, COMMIT_REASON);
+                return statement;
+            },
+            (rs, rowNum) -> new StockConsumption(
+                rs.getLong("id"),
+                rs.getString("code"),
+                rs.getBigDecimal("quantity"),
+                rs.getBigDecimal("stock_quantity")
+            )
+        );
+
+        productionPlanModel.rawMaterialsChanged(required.keySet());
+        catalogCache.stockChanged(required.keySet());
+        return new ProductionCommitResponse(List.copyOf(items), totalValue, consumption);
+    }
+
+    private long[] requestedQuantities(CompiledPlan plan, List<ProductionCommitItem> requested) {
+        long[] quantities = new long[plan.productCount()];
+        for (ProductionCommitItem item : requested) {
+            int product = plan.productIndex(item.productId());
+            if (product < 0) {
+                throw new ResourceNotFoundException("Product with id %d was not found".formatted(item.productId()));
+            }
+            if (plan.compositionStart(product) == plan.compositionEnd(product)) {
+                throw new BadRequestException(
+                    "Product %s has no complete composition and cannot be produced".formatted(plan.product(product).code())
+                );
+            }
+            try {
+                quantities[product] = Math.addExact(quantities[product], item.quantity());
+            } catch (ArithmeticException ex) {
+                throw new BadRequestException("Quantity for product %d is too large".formatted(item.productId()));
+            }
+        }
+        return quantities;
+    }
+
+    private SortedMap<Long, BigDecimal> requiredStock(CompiledPlan plan, long[] quantities) {
+        long[] required;
+        try {
+            required = plan.requirements(quantities);
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException("Production plan exceeds the supported stock range");
+        }
+
+        SortedMap<Long, BigDecimal> byRawMaterial = new TreeMap<>();
+        for (int material = 0; material < required.length; material++) {
+            if (required[material] > 0) {
+                byRawMaterial.put(
+                    plan.rawMaterialId(material),
+                    plan.fromScaled(required[material]).setScale(STOCK_SCALE, RoundingMode.UP)
+                );
+            }
+        }
+        return byRawMaterial;
+    }
+
+    private Map<Long, LockedStock> lock(Long[] rawMaterialIds) {
+        Map<Long, LockedStock> locked = new HashMap<>();
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(LOCK_RAW_MATERIALS);
+                statement.setArray(1, connection.createArrayOf("bigint", rawMaterialIds));
+                return statement;
+            },
+            rs -> {
+                locked.put(rs.getLong("id"), new LockedStock(rs.getString("code"), rs.getBigDecimal("stock_quantity")));
+            }
+        );
+        return locked;
+    }
+
+    private static List<StockShortage> findShortages(Map<Long, BigDecimal> required, Map<Long, LockedStock> locked) {
+        List<StockShortage> shortages = new ArrayList<>();
+        required.forEach((rawMaterialId, quantity) -> {
+            LockedStock stock = locked.get(rawMaterialId);
+            BigDecimal available = stock == null ? BigDecimal.ZERO.setScale(STOCK_SCALE) : stock.quantity();
+            if (available.compareTo(quantity) < 0) {
+                shortages.add(new StockShortage(
+                    rawMaterialId,
+                    stock == null ? null : stock.code(),
+                    quantity,
+                    available
+                ));
+            }
+        });
+        return shortages;
+    }
+
+    private record LockedStock(String code, BigDecimal quantity) {
+    }
+}
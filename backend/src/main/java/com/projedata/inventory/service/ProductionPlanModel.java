@@ -0,0 +1,263 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.entity.Product;
+import com.projedata.inventory.entity.ProductRawMaterial;
+import com.projedata.inventory.entity.RawMaterial;
+import com.projedata.inventory.repository.ProductRawMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.CompiledPlan.CompositionEntry;
+import com.projedata.inventory.service.CompiledPlan.ProductEntry;
+import com.projedata.inventory.service.PlanningMetrics.Phase;
+import com.projedata.inventory.service.PlanningMetrics.Refresh;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Resident copy of the data the production planner needs (products, stock and compositions).
+ * <p>
+ * The catalog is loaded once and then kept current with deltas: the write services report the ids they
+ * touched once their transaction commits, and the next {@link #snapshot()} rereads only those rows.
+ * The data is kept as a {@link CompiledPlan}; stock-only changes reuse the compiled structure.
+ * Writes that bypass the services (manual SQL, other instances) are only picked up after {@link #invalidate()}.
+ * The size of the current plan is published as gauges.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductionPlanModel implements MeterBinder {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final PlanningMetrics planningMetrics;
+
+    private final Set<Long> changedProductIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedRawMaterialIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedCompositionIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean invalidated = true;
+
+    private final String generation = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Map<Long, ProductEntry> products = new HashMap<>();
+    private final Map<Long, BigDecimal> stockByRawMaterial = new HashMap<>();
+    private final Map<Long, CompositionEntry> compositions = new HashMap<>();
+    private volatile CompiledPlan plan;
+
+    public void productChanged(Long productId) {
+        afterCommit(() -> changedProductIds.add(productId));
+    }
+
+    public void rawMaterialChanged(Long rawMaterialId) {
+        afterCommit(() -> changedRawMaterialIds.add(rawMaterialId));
+    }
+
+    public void compositionChanged(Long compositionId) {
+        afterCommit(() -> changedCompositionIds.add(compositionId));
+    }
+
+    public void productsChanged(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        afterCommit(() -> changedProductIds.addAll(ids));
+    }
+
+    public void rawMaterialsChanged(Collection<Long> rawMaterialIds) {
+        List<Long> ids = List.copyOf(rawMaterialIds);
+        afterCommit(() -> changedRawMaterialIds.addAll(ids));
+    }
+
+    public void compositionsChanged(Collection<Long> compositionIds) {
+        List<Long> ids = List.copyOf(compositionIds);
+        afterCommit(() -> changedCompositionIds.addAll(ids));
+    }
+
+    public void invalidate() {
+        afterCommit(() -> invalidated = true);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("planning.catalog.products", this, model -> planSize(model, CompiledPlan::productCount))
+            .description("Products in the compiled planning model")
+            .register(registry);
+        Gauge.builder("planning.catalog.raw_materials", this, model -> planSize(model, CompiledPlan::rawMaterialCount))
+            .description("Raw materials in the compiled planning model")
+            .register(registry);
+        Gauge.builder("planning.bom.lines", this, model -> planSize(model, plan -> plan.compositionStart(plan.productCount())))
+            .description("Exploded bill-of-materials lines (raw material requirements per product) in the compiled plan")
+            .register(registry);
+    }
+
+    /**
+     * Identifies the data the planner sees: it changes whenever a reported write commits (and on restart).
+     * Read it before {@link #snapshot()} so a result is never labelled with a version newer than its data.
+     */
+    public String dataVersion() {
+        return generation + "." + version.get();
+    }
+
+    /**
+     * Applies pending changes and returns the compiled planning data. Guarded by a {@link ReentrantLock} rather
+     * than {@code synchronized}: the refresh runs JDBC reads, and a virtual thread blocking inside a monitor
+     * would pin its carrier thread.
+     */
+    public CompiledPlan snapshot() {
+        refreshLock.lock();
+        try {
+            if (invalidated) {
+                reloadAll();
+            } else {
+                applyPendingChanges();
+            }
+            return plan;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void reloadAll() {
+        invalidated = false;
+        changedProductIds.clear();
+        changedRawMaterialIds.clear();
+        changedCompositionIds.clear();
+
+        products.clear();
+        stockByRawMaterial.clear();
+        compositions.clear();
+
+        long started = System.nanoTime();
+        List<Product> loadedProducts = productRepository.findAllByOrderByValueDescCodeAsc();
+        loadedProducts.forEach(product -> products.put(product.getId(), toEntry(product)));
+        planningMetrics.record(Phase.LOAD_PRODUCTS, started);
+
+        started = System.nanoTime();
+        rawMaterialRepository.findAll()
+            .forEach(rawMaterial -> stockByRawMaterial.put(rawMaterial.getId(), rawMaterial.getStockQuantity()));
+        planningMetrics.record(Phase.LOAD_STOCK, started);
+
+        started = System.nanoTime();
+        productRawMaterialRepository.findByProductIdIn(loadedProducts.stream().map(Product::getId).toList())
+            .forEach(prm -> compositions.put(prm.getId(), toEntry(prm)));
+        planningMetrics.record(Phase.LOAD_COMPOSITIONS, started);
+
+        plan = compile();
+        planningMetrics.refreshed(Refresh.FULL);
+    }
+
+    private void applyPendingChanges() {
+        Set<Long> productIds = drain(changedProductIds);
+        Set<Long> rawMaterialIds = drain(changedRawMaterialIds);
+        Set<Long> compositionIds = drain(changedCompositionIds);
+
+        if (!rawMaterialIds.isEmpty()) {
+            long started = System.nanoTime();
+            rawMaterialIds.forEach(stockByRawMaterial::remove);
+            for (RawMaterial rawMaterial : rawMaterialRepository.findAllById(rawMaterialIds)) {
+                stockByRawMaterial.put(rawMaterial.getId(), rawMaterial.getStockQuantity());
+            }
+            planningMetrics.record(Phase.LOAD_STOCK, started);
+        }
+
+        if (!productIds.isEmpty()) {
+            long started = System.nanoTime();
+            productIds.forEach(products::remove);
+            for (Product product : productRepository.findAllById(productIds)) {
+                products.put(product.getId(), toEntry(product));
+            }
+            planningMetrics.record(Phase.LOAD_PRODUCTS, started);
+        }
+
+        if (!compositionIds.isEmpty()) {
+            long started = System.nanoTime();
+            compositionIds.forEach(compositions::remove);
+            for (ProductRawMaterial prm : productRawMaterialRepository.findAllById(compositionIds)) {
+                compositions.put(prm.getId(), toEntry(prm));
+            }
+            planningMetrics.record(Phase.LOAD_COMPOSITIONS, started);
+        }
+
+        if (!productIds.isEmpty() || !compositionIds.isEmpty()) {
+            plan = compile();
+            planningMetrics.refreshed(Refresh.DELTA);
+        } else if (!rawMaterialIds.isEmpty()) {
+            long started = System.nanoTime();
+            CompiledPlan restocked = plan.withStock(stockByRawMaterial);
+            planningMetrics.record(Phase.RESTOCK, started);
+            plan = restocked != null ? restocked : compile();
+            planningMetrics.refreshed(Refresh.RESTOCK);
+        } else {
+            planningMetrics.refreshed(Refresh.NONE);
+        }
+    }
+
+    private CompiledPlan compile() {
+        long started = System.nanoTime();
+        CompiledPlan compiled = CompiledPlan.compile(products.values(), stockByRawMaterial, compositions.values());
+        planningMetrics.record(Phase.COMPILE, started);
+        return compiled;
+    }
+
+    private static double planSize(ProductionPlanModel model, ToIntFunction<CompiledPlan> size) {
+        CompiledPlan current = model.plan;
+        return current == null ? 0 : size.applyAsInt(current);
+    }
+
+    private static ProductEntry toEntry(Product product) {
+        return new ProductEntry(product.getId(), product.getCode(), product.getName(), product.getValue());
+    }
+
+    private static CompositionEntry toEntry(ProductRawMaterial prm) {
+        return new CompositionEntry(
+            prm.getId(),
+            prm.getProduct().getId(),
+            prm.getRawMaterial() == null ? null : prm.getRawMaterial().getId(),
+            prm.getComponentProduct() == null ? null : prm.getComponentProduct().getId(),
+            prm.getRequiredQuantity()
+        );
+    }
+
+    private static Set<Long> drain(Set<Long> pending) {
+        Set<Long> drained = new HashSet<>();
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                drained.add(id);
+            }
+        }
+        return drained;
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable action = () -> {
+            change.run();
+            version.incrementAndGet();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
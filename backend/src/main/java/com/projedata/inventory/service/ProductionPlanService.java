@@ -1,106 +1,262 @@
 package com.projedata.inventory.service;
 
+import com.projedata.inventory.dto.PlanningStrategy;
+import com.projedata.inventory.dto.ProductionScenario;
+import com.projedata.inventory.dto.ProductionScenarioRequest;
+import com.projedata.inventory.dto.ProductionScenarioResponse;
+import com.projedata.inventory.dto.ProductionScenarioResult;
 import com.projedata.inventory.dto.ProductionSuggestionItem;
 import com.projedata.inventory.dto.ProductionSuggestionResponse;
-import com.projedata.inventory.entity.Product;
-import com.projedata.inventory.entity.ProductRawMaterial;
-import com.projedata.inventory.entity.RawMaterial;
-import com.projedata.inventory.repository.ProductRawMaterialRepository;
-import com.projedata.inventory.repository.ProductRepository;
-import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.dto.ProductionSuggestionSummary;
+import com.projedata.inventory.dto.ScenarioStockOverride;
+import com.projedata.inventory.exception.BadRequestException;
+import com.projedata.inventory.exception.ResourceNotFoundException;
+import com.projedata.inventory.service.CompiledPlan.ProductEntry;
+import com.projedata.inventory.service.PlanningMetrics.Phase;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
+/**
+ * Plans from the in-memory {@link ProductionPlanModel}; the model reads the database through the repositories'
+ * own short transactions, so no connection is held while a plan is being computed.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class ProductionPlanService {
 
-    private final ProductRepository productRepository;
-    private final RawMaterialRepository rawMaterialRepository;
-    private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final ProductionPlanModel productionPlanModel;
+    private final OptimalPlanner optimalPlanner;
+    private final ForkJoinPool planningPool;
+    private final PlanningMetrics planningMetrics;
+
+    private final AtomicReference<VersionedSuggestions> greedySuggestions = new AtomicReference<>();
 
     public ProductionSuggestionResponse calculateSuggestions() {
-        List<Product> products = productRepository.findAllByOrderByValueDescCodeAsc();
-        Map<Long, BigDecimal> virtualStock = loadVirtualStock();
+        return calculateSuggestions(PlanningStrategy.GREEDY, null);
+    }
 
-        List<Long> productIds = products.stream().map(Product::getId).toList();
-        Map<Long, List<ProductRawMaterial>> compositionByProduct = productRawMaterialRepository
-            .findByProductIdIn(productIds)
-            .stream()
-            .collect(Collectors.groupingBy(prm -> prm.getProduct().getId()));
+    public ProductionSuggestionResponse calculateSuggestions(PlanningStrategy strategy, Duration timeBudget) {
+        if (strategy == PlanningStrategy.OPTIMAL) {
+            CompiledPlan plan = productionPlanModel.snapshot();
+            long started = System.nanoTime();
+            OptimalPlanner.Result result = optimalPlanner.plan(plan, plan.stockVector(), timeBudget);
+            planningMetrics.record(Phase.OPTIMAL_SEARCH, started);
+            return timedResponse(plan, result.quantities(), strategy, result.optimalityGap());
+        }
+        return greedySuggestions().response();
+    }
 
-        List<ProductionSuggestionItem> items = new ArrayList<>();
-        BigDecimal totalValue = BigDecimal.ZERO;
+    /**
+     * Prepares a plan to be written item by item. The snapshot (and, for the optimal strategy, the whole search)
+     * is taken here so failures surface before a response starts; an uncached greedy plan is then allocated while
+     * it is written, without materializing the item list.
+     */
+    public SuggestionStream suggestionStream(PlanningStrategy strategy, Duration timeBudget) {
+        if (strategy == PlanningStrategy.OPTIMAL) {
+            ProductionSuggestionResponse response = calculateSuggestions(strategy, timeBudget);
+            return new SuggestionStream(null, sink -> replay(response, sink));
+        }
 
-        for (Product product : products) {
-            List<ProductRawMaterial> composition = compositionByProduct.get(product.getId());
-            if (composition == null || composition.isEmpty()) {
-                continue;
+        String version = productionPlanModel.dataVersion();
+        VersionedSuggestions cached = greedySuggestions.get();
+        if (cached != null && cached.version().equals(version)) {
+            return new SuggestionStream(version, sink -> replay(cached.response(), sink));
+        }
+
+        CompiledPlan plan = productionPlanModel.snapshot();
+        return new SuggestionStream(version, sink -> allocateInto(plan, sink));
+    }
+
+    /**
+     * Version of the data the greedy plan is computed from; cheap, meant for conditional requests.
+     */
+    public String currentDataVersion() {
+        return productionPlanModel.dataVersion();
+    }
+
+    /**
+     * Returns the greedy plan together with the data version it was computed from, reusing the last result
+     * while the version has not moved.
+     */
+    public VersionedSuggestions greedySuggestions() {
+        String version = productionPlanModel.dataVersion();
+        VersionedSuggestions cached = greedySuggestions.get();
+        if (cached != null && cached.version().equals(version)) {
+            planningMetrics.suggestionsCache(true);
+            return cached;
+        }
+        planningMetrics.suggestionsCache(false);
+
+        CompiledPlan plan = productionPlanModel.snapshot();
+        long started = System.nanoTime();
+        long[] quantities = plan.allocateGreedy(plan.stockVector());
+        planningMetrics.record(Phase.ALLOCATE, started);
+        VersionedSuggestions computed = new VersionedSuggestions(
+            version,
+            timedResponse(plan, quantities, PlanningStrategy.GREEDY, null)
+        );
+        greedySuggestions.set(computed);
+        return computed;
+    }
+
+    /**
+     * Evaluates every scenario against the same compiled snapshot. Overrides are validated up front; the greedy
+     * allocations then run concurrently on the planning pool, each on its own copy of the stock vector.
+     */
+    public ProductionScenarioResponse evaluateScenarios(ProductionScenarioRequest request) {
+        CompiledPlan plan = productionPlanModel.snapshot();
+        List<ProductionScenario> scenarios = request.scenarios();
+        List<long[]> stocks = scenarios.stream()
+            .map(scenario -> scenarioStock(plan, scenario))
+            .toList();
+
+        List<ProductionScenarioResult> results = planningPool.submit(() -> IntStream.range(0, scenarios.size())
+            .parallel()
+            .mapToObj(index -> new ProductionScenarioResult(
+                scenarios.get(index).name(),
+                toResponse(plan, plan.allocateGreedy(stocks.get(index)), PlanningStrategy.GREEDY, null)
+            ))
+            .toList()
+        ).join();
+
+        return new ProductionScenarioResponse(results);
+    }
+
+    private long[] scenarioStock(CompiledPlan plan, ProductionScenario scenario) {
+        long[] stock = plan.stockVector();
+        for (ScenarioStockOverride override : scenario.stockOverrides()) {
+            if ((override.stockQuantity() == null) == (override.stockDelta() == null)) {
+                throw new BadRequestException(
+                    "Scenario '%s' must set exactly one of stockQuantity or stockDelta for raw material %d"
+                        .formatted(scenario.name(), override.rawMaterialId())
+                );
             }
 
-            long suggestedQuantity = maxProducibleQuantity(composition, virtualStock);
+            int index = plan.rawMaterialIndex(override.rawMaterialId());
+            if (index < 0) {
+                throw new ResourceNotFoundException(
+                    "Raw material with id %d was not found".formatted(override.rawMaterialId())
+                );
+            }
+
+            stock[index] = override.stockQuantity() != null
+                ? plan.toScaled(override.stockQuantity(), "scenario stock quantity")
+                : stock[index] + plan.toScaled(override.stockDelta(), "scenario stock delta");
+            if (stock[index] < 0) {
+                throw new BadRequestException("Scenario '%s' leaves raw material %d with negative stock"
+                    .formatted(scenario.name(), override.rawMaterialId()));
+            }
+        }
+        return stock;
+    }
+
+    private ProductionSuggestionSummary allocateInto(CompiledPlan plan, Consumer<ProductionSuggestionItem> sink) {
+        BigDecimal[] totalValue = {BigDecimal.ZERO};
+        int[] itemCount = {0};
+        plan.allocateGreedy(plan.stockVector(), (index, quantity) -> {
+            ProductionSuggestionItem item = toItem(plan.product(index), quantity);
+            sink.accept(item);
+            totalValue[0] = totalValue[0].add(item.subtotalValue());
+            itemCount[0]++;
+        });
+        return new ProductionSuggestionSummary(totalValue[0], itemCount[0], PlanningStrategy.GREEDY, null);
+    }
+
+    private static ProductionSuggestionSummary replay(
+        ProductionSuggestionResponse response,
+        Consumer<ProductionSuggestionItem> sink
+    ) {
+        response.items().forEach(sink);
+        return new ProductionSuggestionSummary(
+            response.totalProductionValue(),
+            response.items().size(),
+            response.strategy(),
+            response.optimalityGap()
+        );
+    }
+
+    private ProductionSuggestionResponse timedResponse(
+        CompiledPlan plan,
+        long[] quantities,
+        PlanningStrategy strategy,
+        BigDecimal optimalityGap
+    ) {
+        long started = System.nanoTime();
+        ProductionSuggestionResponse response = toResponse(plan, quantities, strategy, optimalityGap);
+        planningMetrics.record(Phase.MAP, started);
+        return response;
+    }
+
+    ProductionSuggestionResponse toResponse(
+        CompiledPlan plan,
+        long[] quantities,
+        PlanningStrategy strategy,
+        BigDecimal optimalityGap
+    ) {
+        List<ProductionSuggestionItem> items = new ArrayList<>();
+        BigDecimal totalValue = BigDecimal.ZERO;
+
+        for (int index = 0; index < quantities.length; index++) {
+            long suggestedQuantity = quantities[index];
             if (suggestedQuantity <= 0) {
                 continue;
             }
 
-            BigDecimal subtotal = product.getValue().multiply(BigDecimal.valueOf(suggestedQuantity));
-            items.add(new ProductionSuggestionItem(
-                product.getId(),
-                product.getCode(),
-                product.getName(),
-                product.getValue(),
-                suggestedQuantity,
-                subtotal
-            ));
-            totalValue = totalValue.add(subtotal);
-
-            consumeVirtualStock(composition, suggestedQuantity, virtualStock);
+            ProductionSuggestionItem item = toItem(plan.product(index), suggestedQuantity);
+            items.add(item);
+            totalValue = totalValue.add(item.subtotalValue());
         }
 
-        return new ProductionSuggestionResponse(items, totalValue);
+        return new ProductionSuggestionResponse(List.copyOf(items), totalValue, strategy, optimalityGap);
     }
 
-    private Map<Long, BigDecimal> loadVirtualStock() {
-        List<RawMaterial> rawMaterials = rawMaterialRepository.findAll();
-        return rawMaterials.stream()
-            .collect(Collectors.toMap(RawMaterial::getId, RawMaterial::getStockQuantity, (a, b) -> a, HashMap::new));
+    static ProductionSuggestionItem toItem(ProductEntry product, long suggestedQuantity) {
+        return new ProductionSuggestionItem(
+            product.id(),
+            product.code(),
+            product.name(),
+            product.value(),
+            suggestedQuantity,
+            product.value().multiply(BigDecimal.valueOf(suggestedQuantity))
+        );
     }
 
-    private long maxProducibleQuantity(List<ProductRawMaterial> composition, Map<Long, BigDecimal> virtualStock) {
-        long maxQuantity = Long.MAX_VALUE;
+    public record VersionedSuggestions(String version, ProductionSuggestionResponse response) {
+    }
+
+    /**
+     * A prepared plan: {@link #writeTo} hands every item to the sink in planning order and returns the totals.
+     * {@link #version()} is the data version for greedy plans and {@code null} for optimal ones.
+     */
+    public static final class SuggestionStream {
 
-        for (ProductRawMaterial item : composition) {
-            Long rawMaterialId = item.getRawMaterial().getId();
-            BigDecimal available = virtualStock.getOrDefault(rawMaterialId, BigDecimal.ZERO);
-            BigDecimal required = item.getRequiredQuantity();
+        private final String version;
+        private final Function<Consumer<ProductionSuggestionItem>, ProductionSuggestionSummary> writer;
 
-            long units = available.divide(required, 0, RoundingMode.DOWN).longValue();
-            maxQuantity = Math.min(maxQuantity, units);
+        private SuggestionStream(
+            String version,
+            Function<Consumer<ProductionSuggestionItem>, ProductionSuggestionSummary> writer
+        ) {
+            this.version = version;
+            this.writer = writer;
         }
 
-        return maxQuantity == Long.MAX_VALUE ? 0 : maxQuantity;
-    }
+        public String version() {
+            return version;
+        }
 
-    private void consumeVirtualStock(
-        List<ProductRawMaterial> composition,
-        long suggestedQuantity,
-        Map<Long, BigDecimal> virtualStock
-    ) {
-        for (ProductRawMaterial item : composition) {
-            Long rawMaterialId = item.getRawMaterial().getId();
-            BigDecimal current = virtualStock.getOrDefault(rawMaterialId, BigDecimal.ZERO);
-            BigDecimal consumed = item.getRequiredQuantity().multiply(BigDecimal.valueOf(suggestedQuantity));
-            virtualStock.put(rawMaterialId, current.subtract(consumed));
+        public ProductionSuggestionSummary writeTo(Consumer<ProductionSuggestionItem> sink) {
+            return writer.apply(sink);
         }
     }
 }
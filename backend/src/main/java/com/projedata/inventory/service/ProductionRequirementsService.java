@@ -0,0 +1,98 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.MaterialRequirement;
+import com.projedata.inventory.dto.ProductionRequirementsRequest;
+import com.projedata.inventory.dto.ProductionRequirementsResponse;
+import com.projedata.inventory.dto.ProductionTarget;
+import com.projedata.inventory.entity.RawMaterial;
+import com.projedata.inventory.exception.BadRequestException;
+import com.projedata.inventory.exception.ResourceNotFoundException;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.PlanningMetrics.Phase;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nets target production quantities against stock: the targets become a quantity vector that is multiplied by
+ * the compiled bill of materials of the {@link ProductionPlanModel} in one pass, and each raw material's gross
+ * requirement is compared with the stock of the same snapshot. Only the raw material codes are read from the
+ * database, in a single query.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductionRequirementsService {
+
+    private final ProductionPlanModel productionPlanModel;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final PlanningMetrics planningMetrics;
+
+    public ProductionRequirementsResponse calculate(ProductionRequirementsRequest request) {
+        CompiledPlan plan = productionPlanModel.snapshot();
+        long started = System.nanoTime();
+        long[] required;
+        try {
+            required = plan.requirements(targetQuantities(plan, request.targets()));
+        } catch (ArithmeticException ex) {
+            throw new BadRequestException("Target quantities exceed the supported stock range");
+        }
+        long[] stock = plan.stockVector();
+        planningMetrics.record(Phase.REQUIREMENTS, started);
+
+        List<Long> rawMaterialIds = new ArrayList<>();
+        for (int material = 0; material < required.length; material++) {
+            if (required[material] > 0) {
+                rawMaterialIds.add(plan.rawMaterialId(material));
+            }
+        }
+        Map<Long, String> codes = new HashMap<>(rawMaterialIds.size() * 2);
+        for (RawMaterial rawMaterial : rawMaterialRepository.findAllById(rawMaterialIds)) {
+            codes.put(rawMaterial.getId(), rawMaterial.getCode());
+        }
+
+        List<MaterialRequirement> requirements = new ArrayList<>(rawMaterialIds.size());
+        int shortageCount = 0;
+        for (int material = 0; material < required.length; material++) {
+            if (required[material] == 0) {
+                continue;
+            }
+            long shortfall = Math.max(0, required[material] - stock[material]);
+            if (shortfall > 0) {
+                shortageCount++;
+            }
+            requirements.add(new MaterialRequirement(
+                plan.rawMaterialId(material),
+                codes.get(plan.rawMaterialId(material)),
+                plan.fromScaled(required[material]),
+                plan.fromScaled(stock[material]),
+                plan.fromScaled(shortfall)
+            ));
+        }
+        return new ProductionRequirementsResponse(requirements, shortageCount);
+    }
+
+    private static long[] targetQuantities(CompiledPlan plan, List<ProductionTarget> targets) {
+        long[] quantities = new long[plan.productCount()];
+        for (ProductionTarget target : targets) {
+            int product = plan.productIndex(target.productId());
+            if (product < 0) {
+                throw new ResourceNotFoundException("Product with id %d was not found".formatted(target.productId()));
+            }
+            if (plan.compositionStart(product) == plan.compositionEnd(product)) {
+                throw new BadRequestException(
+                    "Product %s has no complete composition and cannot be produced".formatted(plan.product(product).code())
+                );
+            }
+            try {
+                quantities[product] = Math.addExact(quantities[product], target.quantity());
+            } catch (ArithmeticException ex) {
+                throw new BadRequestException("Quantity for product %d is too large".formatted(target.productId()));
+            }
+        }
+        return quantities;
+    }
+}
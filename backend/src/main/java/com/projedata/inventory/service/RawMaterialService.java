@@ -1,5 +1,6 @@
 package com.projedata.inventory.service;
 
+import com.projedata.inventory.dto.CursorPage;
 import com.projedata.inventory.dto.RawMaterialRequest;
 import com.projedata.inventory.dto.RawMaterialResponse;
 import com.projedata.inventory.entity.RawMaterial;
@@ -8,10 +9,16 @@ import com.projedata.inventory.exception.ResourceNotFoundException;
 import com.projedata.inventory.repository.ProductRawMaterialRepository;
 import com.projedata.inventory.repository.RawMaterialRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,15 +27,34 @@ public class RawMaterialService {
 
     private final RawMaterialRepository rawMaterialRepository;
     private final ProductRawMaterialRepository productRawMaterialRepository;
+    private final ProductionPlanModel productionPlanModel;
 
     public List<RawMaterialResponse> findAll() {
-        return rawMaterialRepository.findAll().stream()
-            .map(this::toResponse)
-            .toList();
+        return rawMaterialRepository.findAllResponses();
+    }
+
+    /**
+     * Keyset page ordered by code; {@code after} is the cursor returned with the previous page.
+     */
+    public CursorPage<RawMaterialResponse> findPage(Integer limit, String after) {
+        int pageSize = KeysetCursor.limit(limit);
+        Limit fetch = Limit.of(pageSize + 1);
+        List<RawMaterialResponse> rawMaterials = after == null
+            ? rawMaterialRepository.findResponses(fetch)
+            : rawMaterialRepository.findResponsesAfter(KeysetCursor.decode(after), fetch);
+
+        if (rawMaterials.size() <= pageSize) {
+            return new CursorPage<>(rawMaterials, null);
+        }
+        return new CursorPage<>(
+            List.copyOf(rawMaterials.subList(0, pageSize)),
+            KeysetCursor.encode(rawMaterials.get(pageSize - 1).code())
+        );
     }
 
     public RawMaterialResponse findById(Long id) {
-        return toResponse(getEntityById(id));
+        return rawMaterialRepository.findResponseById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Raw material with id %d was not found".formatted(id)));
     }
 
     @Transactional
@@ -41,7 +67,30 @@ public class RawMaterialService {
             .stockQuantity(request.stockQuantity())
             .build();
 
-        return toResponse(rawMaterialRepository.save(rawMaterial));
+        RawMaterial saved = rawMaterialRepository.save(rawMaterial);
+        productionPlanModel.rawMaterialChanged(saved.getId());
+        return toResponse(saved);
+    }
+
+    /**
+     * Creates every raw material in one transaction: codes are checked in a single query and the rows are
+     * inserted in JDBC batches.
+     */
+    @Transactional
+    public List<RawMaterialResponse> createAll(List<RawMaterialRequest> requests) {
+        validateBatchCodes(requests.stream().map(request -> request.code().trim()).toList());
+
+        List<RawMaterial> rawMaterials = requests.stream()
+            .map(request -> RawMaterial.builder()
+                .code(request.code().trim())
+                .name(request.name().trim())
+                .stockQuantity(request.stockQuantity())
+                .build())
+            .toList();
+
+        List<RawMaterial> saved = rawMaterialRepository.saveAll(rawMaterials);
+        productionPlanModel.rawMaterialsChanged(saved.stream().map(RawMaterial::getId).toList());
+        return saved.stream().map(this::toResponse).toList();
     }
 
     @Transactional
@@ -53,20 +102,25 @@ public class RawMaterialService {
         rawMaterial.setName(request.name().trim());
         rawMaterial.setStockQuantity(request.stockQuantity());
 
-        return toResponse(rawMaterialRepository.save(rawMaterial));
+        RawMaterial saved = rawMaterialRepository.save(rawMaterial);
+        productionPlanModel.rawMaterialChanged(id);
+        return toResponse(saved);
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!rawMaterialRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Raw material with id %d was not found".formatted(id));
-        }
+        RawMaterial rawMaterial = getEntityById(id);
 
         if (productRawMaterialRepository.existsByRawMaterialId(id)) {
             throw new ConflictException("Cannot delete raw material because it is associated with at least one product");
         }
 
-        rawMaterialRepository.deleteById(id);
+        if (rawMaterialRepository.hasStockMovements(id)) {
+            throw new ConflictException("Cannot delete raw material because it has recorded stock movements");
+        }
+
+        rawMaterialRepository.delete(rawMaterial);
+        productionPlanModel.rawMaterialChanged(id);
     }
 
     public RawMaterial getEntityById(Long id) {
@@ -74,6 +128,17 @@ public class RawMaterialService {
             .orElseThrow(() -> new ResourceNotFoundException("Raw material with id %d was not found".formatted(id)));
     }
 
+    public Map<Long, RawMaterial> getEntitiesByIds(Collection<Long> ids) {
+        Map<Long, RawMaterial> found = new HashMap<>();
+        rawMaterialRepository.findAllById(ids).forEach(rawMaterial -> found.put(rawMaterial.getId(), rawMaterial));
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                throw new ResourceNotFoundException("Raw material with id %d was not found".formatted(id));
+            }
+        }
+        return found;
+    }
+
     private void validateCodeUniqueness(String code, Long id) {
         String normalizedCode = code.trim();
         boolean exists = id == null
@@ -85,6 +150,20 @@ public class RawMaterialService {
         }
     }
 
+    private void validateBatchCodes(List<String> codes) {
+        Set<String> seen = new HashSet<>();
+        for (String code : codes) {
+            if (!seen.add(code)) {
+                throw new ConflictException("Raw material code '%s' appears more than once in the batch".formatted(code));
+            }
+        }
+
+        List<String> existing = rawMaterialRepository.findExistingCodes(seen);
+        if (!existing.isEmpty()) {
+            throw new ConflictException("Raw material codes already in use: %s".formatted(String.join(", ", existing)));
+        }
+    }
+
     private RawMaterialResponse toResponse(RawMaterial rawMaterial) {
         return new RawMaterialResponse(
             rawMaterial.getId(),
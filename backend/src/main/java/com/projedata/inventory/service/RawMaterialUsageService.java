@@ -0,0 +1,96 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.RawMaterialUsageItem;
+import com.projedata.inventory.dto.RawMaterialUsageResponse;
+import com.projedata.inventory.dto.StockImpactItem;
+import com.projedata.inventory.dto.StockImpactRequest;
+import com.projedata.inventory.dto.StockImpactResponse;
+import com.projedata.inventory.exception.BadRequestException;
+import com.projedata.inventory.exception.ResourceNotFoundException;
+import com.projedata.inventory.service.CompiledPlan.ProductEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers where a raw material is used from the where-used index of the {@link ProductionPlanModel}'s compiled
+ * plan. Usage is exploded: a product that takes the raw material through a component product is listed with the
+ * total quantity per unit. Buildable quantities are standalone, each product on its own with the whole stock.
+ */
+@Service
+@RequiredArgsConstructor
+public class RawMaterialUsageService {
+
+    private final ProductionPlanModel productionPlanModel;
+
+    public RawMaterialUsageResponse whereUsed(Long rawMaterialId) {
+        CompiledPlan plan = productionPlanModel.snapshot();
+        int material = rawMaterialIndex(plan, rawMaterialId);
+        long[] stock = plan.stockVector();
+
+        List<RawMaterialUsageItem> items = new ArrayList<>(plan.usageEnd(material) - plan.usageStart(material));
+        for (int usage = plan.usageStart(material); usage < plan.usageEnd(material); usage++) {
+            int product = plan.usageProduct(usage);
+            ProductEntry entry = plan.product(product);
+            items.add(new RawMaterialUsageItem(
+                entry.id(),
+                entry.code(),
+                entry.name(),
+                plan.fromScaled(plan.compositionRequired(plan.usageLine(usage))),
+                plan.buildable(product, stock)
+            ));
+        }
+        return new RawMaterialUsageResponse(rawMaterialId, plan.fromScaled(stock[material]), items);
+    }
+
+    /**
+     * Recomputes the standalone buildable quantity of the products that use the raw material, before and after
+     * the proposed stock; no other product is visited.
+     */
+    public StockImpactResponse impact(Long rawMaterialId, StockImpactRequest request) {
+        if ((request.stockQuantity() == null) == (request.stockDelta() == null)) {
+            throw new BadRequestException("Exactly one of stockQuantity or stockDelta must be set");
+        }
+
+        CompiledPlan plan = productionPlanModel.snapshot();
+        int material = rawMaterialIndex(plan, rawMaterialId);
+        long[] stock = plan.stockVector();
+        long currentStock = stock[material];
+        long proposedStock = request.stockQuantity() != null
+            ? plan.toScaled(request.stockQuantity(), "proposed stock quantity")
+            : currentStock + plan.toScaled(request.stockDelta(), "proposed stock delta");
+        if (proposedStock < 0) {
+            throw new BadRequestException(
+                "Proposed stock leaves raw material %d with negative stock".formatted(rawMaterialId)
+            );
+        }
+
+        List<StockImpactItem> items = new ArrayList<>(plan.usageEnd(material) - plan.usageStart(material));
+        for (int usage = plan.usageStart(material); usage < plan.usageEnd(material); usage++) {
+            int product = plan.usageProduct(usage);
+            long currentBuildable = plan.buildable(product, stock);
+            stock[material] = proposedStock;
+            long proposedBuildable = plan.buildable(product, stock);
+            stock[material] = currentStock;
+
+            ProductEntry entry = plan.product(product);
+            items.add(new StockImpactItem(entry.id(), entry.code(), entry.name(), currentBuildable, proposedBuildable));
+        }
+        return new StockImpactResponse(
+            rawMaterialId,
+            plan.fromScaled(currentStock),
+            plan.fromScaled(proposedStock),
+            items
+        );
+    }
+
+    private static int rawMaterialIndex(CompiledPlan plan, Long rawMaterialId) {
+        int index = plan.rawMaterialIndex(rawMaterialId);
+        if (index < 0) {
+            throw new ResourceNotFoundException("Raw material with id %d was not found".formatted(rawMaterialId));
+        }
+        return index;
+    }
+}
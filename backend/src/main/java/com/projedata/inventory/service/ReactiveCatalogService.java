@@ -0,0 +1,153 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.ProductMaterialResponse;
+import com.projedata.inventory.dto.ProductResponse;
+import com.projedata.inventory.dto.RawMaterialResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Non-blocking reads of the catalog over R2DBC, for {@code app.reactive.enabled=true}. Rows are fetched through a
+ * portal {@value #FETCH_SIZE} at a time as the subscriber requests them, so a slow client holds one pooled connection
+ * and no thread while its response drains. The pool is private to this service: publishing it as a
+ * {@code ConnectionFactory} bean would switch off the JDBC DataSource the JPA write path runs on.
+ */
+@Service
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveCatalogService implements MeterBinder {
+
+    public static final int FETCH_SIZE = 256;
+
+    private static final String SELECT_PRODUCTS = """
+        SELECT id, code, name, value
+        FROM products
+        ORDER BY value DESC, code
+        """;
+
+    private static final String SELECT_RAW_MATERIALS = """
+        SELECT id, code, name, stock_quantity
+        FROM raw_materials
+        ORDER BY id
+        """;
+
+    private static final String SELECT_PRODUCT_MATERIALS = """
+        SELECT prm.id, p.id AS product_id, p.code AS product_code, p.name AS product_name,
+               rm.id AS raw_material_id, rm.code AS raw_material_code, rm.name AS raw_material_name,
+               cp.id AS component_product_id, cp.code AS component_product_code, cp.name AS component_product_name,
+               prm.required_quantity
+        FROM product_raw_materials prm
+        JOIN products p ON p.id = prm.product_id
+        LEFT JOIN raw_materials rm ON rm.id = prm.raw_material_id
+        LEFT JOIN products cp ON cp.id = prm.component_product_id
+        WHERE prm.product_id = :productId
+        ORDER BY prm.id
+        """;
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCatalogService(
+        @Value("${app.reactive.r2dbc-url}") String url,
+        @Value("${spring.datasource.username}") String username,
+        @Value("${spring.datasource.password}") String password,
+        @Value("${app.reactive.pool-size:10}") int poolSize
+    ) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("reactive-reads")
+            .initialSize(0)
+            .maxSize(poolSize)
+            .maxIdleTime(Duration.ofMinutes(10))
+            .build());
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    public Flux<ProductResponse> findProducts() {
+        return databaseClient.sql(SELECT_PRODUCTS)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map((row, metadata) -> new ProductResponse(
+                row.get("id", Long.class),
+                row.get("code", String.class),
+                row.get("name", String.class),
+                row.get("value", BigDecimal.class)
+            ))
+            .all();
+    }
+
+    public Flux<RawMaterialResponse> findRawMaterials() {
+        return databaseClient.sql(SELECT_RAW_MATERIALS)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map((row, metadata) -> new RawMaterialResponse(
+                row.get("id", Long.class),
+                row.get("code", String.class),
+                row.get("name", String.class),
+                row.get("stock_quantity", BigDecimal.class)
+            ))
+            .all();
+    }
+
+    public Flux<ProductMaterialResponse> findProductMaterials(Long productId) {
+        return databaseClient.sql(SELECT_PRODUCT_MATERIALS)
+            .bind("productId", productId)
+            .filter(statement -> statement.fetchSize(FETCH_SIZE))
+            .map((row, metadata) -> new ProductMaterialResponse(
+                row.get("id", Long.class),
+                row.get("product_id", Long.class),
+                row.get("product_code", String.class),
+                row.get("product_name", String.class),
+                row.get("raw_material_id", Long.class),
+                row.get("raw_material_code", String.class),
+                row.get("raw_material_name", String.class),
+                row.get("component_product_id", Long.class),
+                row.get("component_product_code", String.class),
+                row.get("component_product_name", String.class),
+                row.get("required_quantity", BigDecimal.class)
+            ))
+            .all();
+    }
+
+    /**
+     * Connections currently checked out of the reactive pool.
+     */
+    public int acquiredConnections() {
+        return pool.getMetrics().map(PoolMetrics::acquiredSize).orElse(0);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "r2dbc.pool.acquired", "Connections checked out of the reactive read pool", PoolMetrics::acquiredSize);
+        gauge(registry, "r2dbc.pool.idle", "Idle connections in the reactive read pool", PoolMetrics::idleSize);
+        gauge(registry, "r2dbc.pool.pending", "Subscribers waiting for a reactive read connection", PoolMetrics::pendingAcquireSize);
+    }
+
+    @PreDestroy
+    void close() {
+        pool.dispose();
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<PoolMetrics> value) {
+        Gauge.builder(name, pool, source -> source.getMetrics().map(value::applyAsDouble).orElse(0.0))
+            .description(description)
+            .tag("name", "reactive-reads")
+            .register(registry);
+    }
+}
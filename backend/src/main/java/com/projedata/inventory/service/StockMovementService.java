@@ -0,0 +1,120 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.StockMovementBatchItem;
+import com.projedata.inventory.dto.StockMovementBatchResponse;
+import com.projedata.inventory.dto.StockMovementRequest;
+import com.projedata.inventory.dto.StockMovementResponse;
+import com.projedata.inventory.exception.BadRequestException;
+import com.projedata.inventory.exception.ConflictException;
+import com.projedata.inventory.exception.ResourceNotFoundException;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Applies signed stock deltas. Each movement is one statement: a guarded {@code UPDATE} that adds the delta only
+ * while the result stays non-negative, chained to the {@code INSERT} of its ledger row. Concurrent movements on the
+ * same raw material serialize on the row lock for just that statement; nothing is read and written back.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockMovementService {
+
+    private static final String APPLY_MOVEMENT = """
+        WITH applied AS (
+            UPDATE raw_materials
+            SET stock_quantity = stock_quantity + :delta, updated_at = CURRENT_TIMESTAMP
+            WHERE id = :rawMaterialId AND stock_quantity + :delta >= 0
+            RETURNING id, stock_quantity
+        )
+        INSERT INTO stock_movements (raw_material_id, quantity_delta, resulting_quantity, reason)
+        SELECT id, :delta, stock_quantity, :reason FROM applied
+        """;
+
+    private static final String APPLY_MOVEMENT_RETURNING = APPLY_MOVEMENT
+        + "RETURNING id, raw_material_id, quantity_delta, resulting_quantity, reason, created_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductionPlanModel productionPlanModel;
+    private final CatalogCache catalogCache;
+
+    @Transactional
+    public StockMovementResponse record(Long rawMaterialId, StockMovementRequest request) {
+        List<StockMovementResponse> recorded = jdbcTemplate.query(
+            APPLY_MOVEMENT_RETURNING,
+            parameters(rawMaterialId, request.quantityDelta(), request.reason()),
+            (rs, rowNum) -> new StockMovementResponse(
+                rs.getLong("id"),
+                rs.getLong("raw_material_id"),
+                rs.getBigDecimal("quantity_delta"),
+                rs.getBigDecimal("resulting_quantity"),
+                rs.getString("reason"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+            )
+        );
+        if (recorded.isEmpty()) {
+            throw rejected(rawMaterialId, request.quantityDelta());
+        }
+
+        productionPlanModel.rawMaterialChanged(rawMaterialId);
+        catalogCache.stockChanged(List.of(rawMaterialId));
+        return recorded.get(0);
+    }
+
+    /**
+     * Records all movements or none, sent to the database as one JDBC batch. Movements are applied ordered by raw
+     * material id (keeping the request order within each raw material) so concurrent batches lock rows in the same
+     * order and cannot deadlock; each movement is checked against the stock left by the previous ones. The
+     * buildability summary is refreshed once, at commit (see the {@code V7} migration), not per statement.
+     */
+    @Transactional
+    public StockMovementBatchResponse recordAll(List<StockMovementBatchItem> items) {
+        List<StockMovementBatchItem> ordered = items.stream()
+            .sorted(Comparator.comparing(StockMovementBatchItem::rawMaterialId))
+            .toList();
+
+        SqlParameterSource[] batch = ordered.stream()
+            .map(item -> parameters(item.rawMaterialId(), item.quantityDelta(), item.reason()))
+            .toArray(SqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(APPLY_MOVEMENT, batch);
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw rejected(ordered.get(i).rawMaterialId(), ordered.get(i).quantityDelta());
+            }
+        }
+
+        List<Long> rawMaterialIds = ordered.stream().map(StockMovementBatchItem::rawMaterialId).distinct().toList();
+        productionPlanModel.rawMaterialsChanged(rawMaterialIds);
+        catalogCache.stockChanged(rawMaterialIds);
+        return new StockMovementBatchResponse(counts.length);
+    }
+
+    private MapSqlParameterSource parameters(Long rawMaterialId, BigDecimal delta, String reason) {
+        if (delta.signum() == 0) {
+            throw new BadRequestException("Quantity delta must not be zero");
+        }
+        return new MapSqlParameterSource()
+            .addValue("rawMaterialId", rawMaterialId)
+            .addValue("delta", delta)
+            .addValue("reason", reason == null || reason.isBlank() ? null : reason.trim());
+    }
+
+    private RuntimeException rejected(Long rawMaterialId, BigDecimal delta) {
+        if (!rawMaterialRepository.existsById(rawMaterialId)) {
+            return new ResourceNotFoundException("Raw material with id %d was not found".formatted(rawMaterialId));
+        }
+        return new ConflictException(
+            "Raw material %d does not have enough stock for a movement of %s".formatted(rawMaterialId, delta.toPlainString())
+        );
+    }
+}
@@ -0,0 +1,167 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.dto.StockSnapshotRejection;
+import com.projedata.inventory.dto.StockSnapshotResponse;
+import com.projedata.inventory.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies a full stock count (CSV of {@code code,stock_quantity}) in three set-based steps: the file is streamed
+ * with {@code COPY} into a temporary staging table, each row is classified once, and a single {@code UPDATE ... FROM}
+ * applies the valid rows and writes one {@code stock_movements} row per changed quantity. Memory use on the
+ * application side does not depend on the size of the file.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockSnapshotService {
+
+    private static final String CREATE_STAGING = """
+        CREATE TEMPORARY TABLE stock_snapshot_staging (code TEXT, stock_quantity TEXT) ON COMMIT DROP
+        """;
+
+    private static final String CLASSIFY = """
+        CREATE TEMPORARY TABLE stock_snapshot_rows ON COMMIT DROP AS
+        SELECT p.code,
+               p.quantity,
+               CASE
+                   WHEN p.code IS NULL OR p.code = '' OR p.quantity IS NULL OR abs(p.quantity) >= 1e11
+                        OR p.quantity <> round(p.quantity, 3)
+                       THEN 'invalid_quantity'
+                   WHEN count(*) OVER (PARTITION BY p.code) > 1 THEN 'duplicate_code'
+                   WHEN p.quantity < 0 THEN 'negative_quantity'
+                   WHEN NOT EXISTS (SELECT 1 FROM raw_materials r WHERE r.code = p.code) THEN 'unknown_code'
+                   ELSE 'valid'
+               END AS outcome
+        FROM (
+            SELECT trim(s.code) AS code,
+                   CASE
+                       WHEN trim(s.stock_quantity) ~ '^[+-]?([0-9]+([.][0-9]*)?|[.][0-9]+)$'
+                           THEN trim(s.stock_quantity)::numeric
+                   END AS quantity
+            FROM stock_snapshot_staging s
+        ) p
+        """;
+
+    static final String SNAPSHOT_REASON = "stock snapshot";
+
+    /**
+     * Overwrites the counted stock and records the difference in the movement ledger. The previous quantity is
+     * read (and locked, in id order) before the update, because {@code RETURNING} only sees the new one.
+     */
+    private static final String APPLY = """
+        WITH counted AS (
+            SELECT r.id, r.stock_quantity AS previous_quantity, s.quantity
+            FROM raw_materials r
+            JOIN stock_snapshot_rows s ON s.code = r.code
+            WHERE s.outcome = 'valid'
+            ORDER BY r.id
+            FOR UPDATE OF r
+        ),
+        applied AS (
+            UPDATE raw_materials r
+            SET stock_quantity = c.quantity, updated_at = CURRENT_TIMESTAMP
+            FROM counted c
+            WHERE r.id = c.id AND c.previous_quantity IS DISTINCT FROM c.quantity
+            RETURNING r.id, c.quantity - c.previous_quantity AS quantity_delta, r.stock_quantity
+        ),
+        ledger AS (
+            INSERT INTO stock_movements (raw_material_id, quantity_delta, resulting_quantity, reason)
+            SELECT id, quantity_delta, stock_quantity, ? FROM applied
+        )
+        SELECT id FROM applied ORDER BY id
+        """;
+
+    private static final String SUMMARIZE = """
+        SELECT outcome, count(*) AS row_count, (array_agg(code ORDER BY code))[1:%d] AS sample
+        FROM stock_snapshot_rows
+        GROUP BY outcome
+        ORDER BY outcome
+        """.formatted(StockSnapshotRejection.SAMPLE_LIMIT);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductionPlanModel productionPlanModel;
+    private final CatalogCache catalogCache;
+
+    /**
+     * Loads the CSV from {@code csv} (UTF-8; the first line is skipped when {@code header} is set) and applies it
+     * in the current transaction. Rows that are not applied are reported, not failed; a malformed file fails the
+     * whole load.
+     */
+    @Transactional
+    public StockSnapshotResponse load(InputStream csv, boolean header) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        copyIn(csv, header);
+        jdbcTemplate.execute(CLASSIFY);
+        List<Long> updatedIds = jdbcTemplate.queryForList(APPLY, Long.class, SNAPSHOT_REASON);
+        int updated = updatedIds.size();
+
+        long rowsRead = 0;
+        long valid = 0;
+        List<StockSnapshotRejection> rejected = new ArrayList<>();
+        for (Summary summary : jdbcTemplate.query(SUMMARIZE, (rs, rowNum) -> new Summary(
+            rs.getString("outcome"),
+            rs.getLong("row_count"),
+            sample(rs.getArray("sample"))
+        ))) {
+            rowsRead += summary.count();
+            if (summary.outcome().equals("valid")) {
+                valid = summary.count();
+            } else {
+                rejected.add(new StockSnapshotRejection(summary.outcome(), summary.count(), summary.sample()));
+            }
+        }
+
+        if (updated > 0) {
+            productionPlanModel.rawMaterialsChanged(updatedIds);
+            catalogCache.stockChanged(updatedIds);
+        }
+        return new StockSnapshotResponse(rowsRead, updated, valid - updated, List.copyOf(rejected));
+    }
+
+    private void copyIn(InputStream csv, boolean header) {
+        String copy = "COPY stock_snapshot_staging (code, stock_quantity) FROM STDIN WITH (FORMAT csv, HEADER %s)"
+            .formatted(header);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy, csv);
+        } catch (SQLException ex) {
+            log.warn("Stock snapshot could not be read", ex);
+            throw new BadRequestException("Stock snapshot could not be read: expected CSV rows of code,stock_quantity");
+        } catch (IOException ex) {
+            log.warn("Stock snapshot upload was interrupted", ex);
+            throw new BadRequestException("Stock snapshot upload was interrupted");
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static List<String> sample(Array codes) throws SQLException {
+        if (codes == null) {
+            return List.of();
+        }
+        return Arrays.stream((Object[]) codes.getArray())
+            .map(code -> (String) code)
+            .toList();
+    }
+
+    private record Summary(String outcome, long count, List<String> sample) {
+    }
+}
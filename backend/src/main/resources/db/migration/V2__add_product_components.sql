@@ -0,0 +1,17 @@
+ALTER TABLE product_raw_materials ALTER COLUMN raw_material_id DROP NOT NULL;
+
+ALTER TABLE product_raw_materials ADD COLUMN component_product_id BIGINT;
+
+ALTER TABLE product_raw_materials
+    ADD CONSTRAINT fk_prm_component_product FOREIGN KEY (component_product_id) REFERENCES products (id);
+
+ALTER TABLE product_raw_materials
+    ADD CONSTRAINT ck_prm_single_component CHECK ((raw_material_id IS NULL) <> (component_product_id IS NULL));
+
+ALTER TABLE product_raw_materials
+    ADD CONSTRAINT ck_prm_not_own_component CHECK (component_product_id <> product_id);
+
+ALTER TABLE product_raw_materials
+    ADD CONSTRAINT uk_prm_product_component UNIQUE (product_id, component_product_id);
+
+CREATE INDEX idx_prm_component_product_id ON product_raw_materials (component_product_id);
@@ -0,0 +1,3 @@
+-- Keyset pagination of products walks (value DESC, code); raw materials page by code, already covered by the
+-- unique index on raw_materials.code.
+CREATE INDEX idx_products_value_code ON products (value DESC, code);
@@ -0,0 +1,11 @@
+-- Hibernate allocates ids in blocks of 50 (pooled optimizer): each nextval hands out the 50 ids ending at the
+-- returned value, which lets inserts be batched. Plain SQL inserts keep working through the column defaults.
+-- Each sequence is moved to at least 50 so the first block never overlaps ids that are already in use.
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+SELECT setval('products_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM products), 0), (SELECT last_value FROM products_id_seq), 50));
+
+ALTER SEQUENCE raw_materials_id_seq INCREMENT BY 50;
+SELECT setval('raw_materials_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM raw_materials), 0), (SELECT last_value FROM raw_materials_id_seq), 50));
+
+ALTER SEQUENCE product_raw_materials_id_seq INCREMENT BY 50;
+SELECT setval('product_raw_materials_id_seq', GREATEST(COALESCE((SELECT MAX(id) FROM product_raw_materials), 0), (SELECT last_value FROM product_raw_materials_id_seq), 50));
@@ -0,0 +1,11 @@
+CREATE TABLE stock_movements (
+    id BIGSERIAL PRIMARY KEY,
+    raw_material_id BIGINT NOT NULL,
+    quantity_delta NUMERIC(14,3) NOT NULL CHECK (quantity_delta <> 0),
+    resulting_quantity NUMERIC(14,3) NOT NULL CHECK (resulting_quantity >= 0),
+    reason VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_stock_movements_raw_material FOREIGN KEY (raw_material_id) REFERENCES raw_materials (id) ON DELETE RESTRICT
+);
+
+CREATE INDEX idx_stock_movements_raw_material_id ON stock_movements (raw_material_id, id);
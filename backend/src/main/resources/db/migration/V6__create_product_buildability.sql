@@ -0,0 +1,167 @@
+-- Standalone buildable quantity of every product (how many units the current stock alone could build) and the raw
+-- material that limits it. The table is maintained by statement-level triggers on products, raw_materials and
+-- product_raw_materials, so every write path (JPA, JDBC batches, COPY snapshots, sync upserts, manual SQL) keeps it
+-- current, and a write refreshes only the products whose exploded composition it touches.
+CREATE TABLE product_buildability (
+    product_id BIGINT PRIMARY KEY,
+    buildable_quantity BIGINT NOT NULL CHECK (buildable_quantity >= 0),
+    limiting_raw_material_id BIGINT,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_product_buildability_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE,
+    CONSTRAINT fk_product_buildability_raw_material FOREIGN KEY (limiting_raw_material_id) REFERENCES raw_materials (id)
+);
+
+CREATE INDEX idx_product_buildability_quantity ON product_buildability (buildable_quantity, product_id);
+CREATE INDEX idx_product_buildability_bottleneck
+    ON product_buildability (limiting_raw_material_id, buildable_quantity, product_id);
+
+-- Recomputes the given products. Compositions are exploded through component products and summed per raw material
+-- before dividing; a product without composition, or with a component that has none, can build 0 and has no
+-- limiting raw material (same rules as the in-memory planner). The walk stops at a product already on its path: a
+-- cycle only exists inside a transaction the services are about to reject. The rows are locked first, in id order,
+-- and the values computed by a later statement: under READ COMMITTED that statement sees whatever a concurrent
+-- refresh of the same products committed while this one waited, so the last writer never stores a stale value.
+CREATE FUNCTION refresh_product_buildability(changed_product_ids BIGINT[]) RETURNS void
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM 1
+    FROM product_buildability
+    WHERE product_id = ANY (changed_product_ids)
+    ORDER BY product_id
+    FOR UPDATE;
+
+    WITH RECURSIVE bom (product_id, raw_material_id, component_product_id, required_quantity, path) AS (
+        SELECT prm.product_id, prm.raw_material_id, prm.component_product_id, CAST(prm.required_quantity AS NUMERIC),
+               ARRAY[prm.product_id]
+        FROM product_raw_materials prm
+        WHERE prm.product_id = ANY (changed_product_ids)
+        UNION ALL
+        SELECT bom.product_id, prm.raw_material_id, prm.component_product_id, bom.required_quantity * prm.required_quantity,
+               bom.path || bom.component_product_id
+        FROM bom
+        JOIN product_raw_materials prm ON prm.product_id = bom.component_product_id
+        WHERE bom.component_product_id <> ALL (bom.path)
+    ),
+    blocked AS (
+        SELECT DISTINCT bom.product_id
+        FROM bom
+        WHERE bom.component_product_id IS NOT NULL
+          AND NOT EXISTS (SELECT 1 FROM product_raw_materials c WHERE c.product_id = bom.component_product_id)
+    ),
+    limit_by_material AS (
+        SELECT DISTINCT ON (r.product_id) r.product_id, r.raw_material_id, div(rm.stock_quantity, r.required_quantity) AS quantity
+        FROM (
+            SELECT product_id, raw_material_id, SUM(required_quantity) AS required_quantity
+            FROM bom
+            WHERE raw_material_id IS NOT NULL
+            GROUP BY product_id, raw_material_id
+        ) r
+        JOIN raw_materials rm ON rm.id = r.raw_material_id
+        ORDER BY r.product_id, quantity, r.raw_material_id
+    )
+    INSERT INTO product_buildability AS pb (product_id, buildable_quantity, limiting_raw_material_id)
+    SELECT p.id,
+           CASE WHEN b.product_id IS NULL THEN COALESCE(CAST(l.quantity AS BIGINT), 0) ELSE 0 END,
+           CASE WHEN b.product_id IS NULL THEN l.raw_material_id END
+    FROM products p
+    LEFT JOIN blocked b ON b.product_id = p.id
+    LEFT JOIN limit_by_material l ON l.product_id = p.id
+    WHERE p.id = ANY (changed_product_ids)
+    ON CONFLICT (product_id) DO UPDATE
+    SET buildable_quantity = EXCLUDED.buildable_quantity,
+        limiting_raw_material_id = EXCLUDED.limiting_raw_material_id,
+        updated_at = CURRENT_TIMESTAMP
+    WHERE (pb.buildable_quantity, pb.limiting_raw_material_id)
+        IS DISTINCT FROM (EXCLUDED.buildable_quantity, EXCLUDED.limiting_raw_material_id);
+END;
+$$;
+
+-- Products whose exploded composition contains any of the given raw materials or products: their direct users
+-- plus every product that takes one of those as a component, transitively.
+CREATE FUNCTION products_using(raw_material_ids BIGINT[], component_product_ids BIGINT[]) RETURNS BIGINT[]
+LANGUAGE sql STABLE AS $$
+    WITH RECURSIVE affected (product_id) AS (
+        SELECT seed.product_id
+        FROM (
+            SELECT prm.product_id FROM product_raw_materials prm WHERE prm.raw_material_id = ANY (raw_material_ids)
+            UNION
+            SELECT unnest(component_product_ids)
+        ) seed
+        UNION
+        SELECT prm.product_id
+        FROM affected a
+        JOIN product_raw_materials prm ON prm.component_product_id = a.product_id
+    )
+    SELECT COALESCE(array_agg(product_id), '{}') FROM affected
+$$;
+
+CREATE FUNCTION product_buildability_on_products() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM refresh_product_buildability(ARRAY(SELECT id FROM new_rows));
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION product_buildability_on_raw_materials() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed BIGINT[];
+BEGIN
+    changed := ARRAY(
+        SELECT n.id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE n.stock_quantity IS DISTINCT FROM o.stock_quantity
+    );
+    IF cardinality(changed) > 0 THEN
+        PERFORM refresh_product_buildability(products_using(changed, '{}'));
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- A changed line affects the product that owns it (before and after the change) and every product above it.
+CREATE FUNCTION product_buildability_on_compositions() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed BIGINT[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        changed := ARRAY(SELECT product_id FROM new_rows);
+    ELSIF TG_OP = 'DELETE' THEN
+        changed := ARRAY(SELECT product_id FROM old_rows);
+    ELSE
+        changed := ARRAY(SELECT product_id FROM new_rows UNION SELECT product_id FROM old_rows);
+    END IF;
+    PERFORM refresh_product_buildability(products_using('{}', changed));
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_product_buildability_products_insert
+    AFTER INSERT ON products
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_buildability_on_products();
+
+CREATE TRIGGER trg_product_buildability_raw_materials_update
+    AFTER UPDATE ON raw_materials
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_buildability_on_raw_materials();
+
+CREATE TRIGGER trg_product_buildability_compositions_insert
+    AFTER INSERT ON product_raw_materials
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_buildability_on_compositions();
+
+CREATE TRIGGER trg_product_buildability_compositions_update
+    AFTER UPDATE ON product_raw_materials
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_buildability_on_compositions();
+
+CREATE TRIGGER trg_product_buildability_compositions_delete
+    AFTER DELETE ON product_raw_materials
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION product_buildability_on_compositions();
+
+SELECT refresh_product_buildability(ARRAY(SELECT id FROM products));
@@ -0,0 +1,92 @@
+-- The buildability triggers used to refresh the summary inside every statement. A transaction of several
+-- statements (a movement batch, a flush of composition lines) then locked one set of summary rows per statement,
+-- in no global order, and could deadlock with a concurrent write that shared any product. The triggers now only
+-- queue the affected products; the queue is drained once, when the transaction commits, by a deferred constraint
+-- trigger that refreshes everything the transaction touched in a single call, so its summary rows are locked in
+-- product id order and only for the instant before commit.
+CREATE UNLOGGED TABLE product_buildability_pending (
+    product_id BIGINT
+);
+
+-- A row with a NULL product_id marks that the transaction already scheduled its drain (one per transaction, tracked
+-- in a transaction-local setting). Queued rows never outlive their transaction: the drain deletes them before commit.
+CREATE FUNCTION queue_product_buildability(changed_product_ids BIGINT[]) RETURNS void
+LANGUAGE plpgsql AS $$
+BEGIN
+    IF cardinality(changed_product_ids) = 0 THEN
+        RETURN;
+    END IF;
+    INSERT INTO product_buildability_pending (product_id) SELECT unnest(changed_product_ids);
+    IF current_setting('projedata.buildability_queued', true) IS DISTINCT FROM 'on' THEN
+        PERFORM set_config('projedata.buildability_queued', 'on', true);
+        INSERT INTO product_buildability_pending (product_id) VALUES (NULL);
+    END IF;
+END;
+$$;
+
+CREATE FUNCTION drain_product_buildability() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed BIGINT[];
+BEGIN
+    PERFORM set_config('projedata.buildability_queued', '', true);
+    WITH drained AS (
+        DELETE FROM product_buildability_pending RETURNING product_id
+    )
+    SELECT array_agg(DISTINCT product_id) INTO changed FROM drained WHERE product_id IS NOT NULL;
+    IF changed IS NOT NULL THEN
+        PERFORM refresh_product_buildability(changed);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE CONSTRAINT TRIGGER trg_product_buildability_drain
+    AFTER INSERT ON product_buildability_pending
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW
+    WHEN (NEW.product_id IS NULL)
+    EXECUTE FUNCTION drain_product_buildability();
+
+CREATE OR REPLACE FUNCTION product_buildability_on_products() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM queue_product_buildability(ARRAY(SELECT id FROM new_rows));
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION product_buildability_on_raw_materials() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed BIGINT[];
+BEGIN
+    changed := ARRAY(
+        SELECT n.id
+        FROM new_rows n
+        JOIN old_rows o ON o.id = n.id
+        WHERE n.stock_quantity IS DISTINCT FROM o.stock_quantity
+    );
+    IF cardinality(changed) > 0 THEN
+        PERFORM queue_product_buildability(products_using(changed, '{}'));
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION product_buildability_on_compositions() RETURNS trigger
+LANGUAGE plpgsql AS $$
+DECLARE
+    changed BIGINT[];
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        changed := ARRAY(SELECT product_id FROM new_rows);
+    ELSIF TG_OP = 'DELETE' THEN
+        changed := ARRAY(SELECT product_id FROM old_rows);
+    ELSE
+        changed := ARRAY(SELECT product_id FROM new_rows UNION SELECT product_id FROM old_rows);
+    END IF;
+    PERFORM queue_product_buildability(products_using('{}', changed));
+    RETURN NULL;
+END;
+$$;
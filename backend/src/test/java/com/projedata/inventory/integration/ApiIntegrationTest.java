@@ -2,34 +2,70 @@ package com.projedata.inventory.integration;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.config.SqlStatementCounter;
+import com.projedata.inventory.dto.StockMovementRequest;
+import com.projedata.inventory.exception.ConflictException;
 import com.projedata.inventory.repository.ProductRawMaterialRepository;
 import com.projedata.inventory.repository.ProductRepository;
 import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.ProductionPlanModel;
+import com.projedata.inventory.service.StockMovementService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Testcontainers(disabledWithoutDocker = true)
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability
 @ActiveProfiles("test")
 class ApiIntegrationTest {
 
@@ -45,6 +81,9 @@ class ApiIntegrationTest {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
         registry.add("spring.datasource.username", postgres::getUsername);
         registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("app.reactive.enabled", () -> "true");
+        registry.add("app.reactive.r2dbc-url",
+            () -> "r2dbc:postgresql://%s:%d/projedata".formatted(postgres.getHost(), postgres.getFirstMappedPort()));
     }
 
     @Autowired
@@ -62,11 +101,31 @@ class ApiIntegrationTest {
     @Autowired
     private RawMaterialRepository rawMaterialRepository;
 
+    @Autowired
+    private ProductionPlanModel productionPlanModel;
+
+    @Autowired
+    private StockMovementService stockMovementService;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     void cleanDatabase() {
+        jdbcTemplate.update("DELETE FROM stock_movements");
         productRawMaterialRepository.deleteAll();
         productRepository.deleteAll();
         rawMaterialRepository.deleteAll();
+        productionPlanModel.invalidate();
     }
 
     @Test
@@ -106,6 +165,858 @@ class ApiIntegrationTest {
             .andExpect(status().isNoContent());
     }
 
+    @Test
+    void shouldAnswerRepeatedSuggestionRequestsWithNotModifiedUntilDataChanges() throws Exception {
+        Long steelId = createRawMaterial("RM-ETAG", "Aco", "10.000");
+        Long productId = createProduct("PRD-ETAG", "Produto", "10.00");
+        createComposition(productId, steelId, "1.000");
+
+        String etag = mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andExpect(header().stringValues("Vary", hasItem("Accept")))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+        mockMvc.perform(get("/api/production-plan/suggestions").header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().stringValues("Vary", hasItem("Accept")));
+
+        MvcResult ndjson = mockMvc.perform(get("/api/production-plan/suggestions")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .header("If-None-Match", etag))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", not(etag)));
+
+        mockMvc.perform(put("/api/raw-materials/{id}", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "code": "RM-ETAG",
+                      "name": "Aco",
+                      "stockQuantity": 20.000
+                    }
+                    """))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/production-plan/suggestions").header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(20));
+    }
+
+    @Test
+    void shouldStreamSuggestionsAsNdjsonAndServerSentEvents() throws Exception {
+        Long steelId = createRawMaterial("RM-STREAM", "Aco", "10.000");
+        Long productId = createProduct("PRD-STREAM", "Produto", "10.00");
+        createComposition(productId, steelId, "3.000");
+
+        MvcResult ndjson = mockMvc.perform(get("/api/production-plan/suggestions").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().string("ETag", endsWith("-ndjson\"")))
+            .andExpect(header().stringValues("Vary", hasItem("Accept")))
+            .andReturn()
+            .getResponse()
+            .getContentAsString()
+            .split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("productCode").asText()).isEqualTo("PRD-STREAM");
+        assertThat(objectMapper.readTree(lines[0]).get("suggestedQuantity").asLong()).isEqualTo(3);
+        assertThat(objectMapper.readTree(lines[1]).get("totalProductionValue").decimalValue()).isEqualByComparingTo("30.00");
+
+        MvcResult events = mockMvc.perform(get("/api/production-plan/suggestions").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = mockMvc.perform(asyncDispatch(events))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", endsWith("-sse\"")))
+            .andExpect(header().stringValues("Vary", hasItem("Accept")))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(body).startsWith("event: item\ndata: {").contains("\n\nevent: summary\ndata: {");
+
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(3));
+
+        mockMvc.perform(get("/api/production-plan/suggestions")
+                .param("strategy", "unknown")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void shouldServeCatalogReadsFromTheReactivePath() throws Exception {
+        Long steelId = createRawMaterial("RM-REACT", "Aco", "10.000");
+        Long cheapId = createProduct("PRD-REACT-B", "Produto B", "10.00");
+        Long valuableId = createProduct("PRD-REACT-A", "Produto A", "50.00");
+        createComposition(cheapId, steelId, "1.000");
+        createComposition(valuableId, steelId, "3.000");
+        createComponent(valuableId, cheapId, "2.000");
+
+        MvcResult products = mockMvc.perform(get("/api/reactive/products").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String[] lines = mockMvc.perform(asyncDispatch(products))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString()
+            .split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("code").asText()).isEqualTo("PRD-REACT-A");
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(cheapId);
+
+        MvcResult rawMaterials = mockMvc.perform(get("/api/reactive/raw-materials"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(rawMaterials))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].stockQuantity").value(10.000));
+
+        MvcResult compositions = mockMvc.perform(get("/api/reactive/product-materials").param("productId", valuableId.toString()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String blocking = mockMvc.perform(get("/api/product-materials").param("productId", valuableId.toString()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String reactive = mockMvc.perform(asyncDispatch(compositions))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[1].componentProductCode").value("PRD-REACT-B"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        assertThat(objectMapper.readTree(reactive)).isEqualTo(objectMapper.readTree(blocking));
+
+        MvcResult suggestions = mockMvc.perform(get("/api/reactive/production-plan/suggestions"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(suggestions))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].productCode").value("PRD-REACT-A"))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(2));
+    }
+
+    @Test
+    void shouldPageProductsAndRawMaterialsWithKeysetCursors() throws Exception {
+        createProduct("PRD-P3", "Produto 3", "10.00");
+        createProduct("PRD-P1", "Produto 1", "50.00");
+        createProduct("PRD-P2", "Produto 2", "10.00");
+        createRawMaterial("RM-B", "Materia B", "1.000");
+        createRawMaterial("RM-A", "Materia A", "1.000");
+
+        String cursor = mockMvc.perform(get("/api/products").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].code").value("PRD-P1"))
+            .andExpect(jsonPath("$[1].code").value("PRD-P2"))
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/products").param("limit", "2").param("after", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].code").value("PRD-P3"))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        String rawMaterialCursor = mockMvc.perform(get("/api/raw-materials").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].code").value("RM-A"))
+            .andReturn()
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/raw-materials").param("after", rawMaterialCursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].code").value("RM-B"));
+
+        mockMvc.perform(get("/api/products").param("limit", "0"))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products").param("after", "not-a-cursor"))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/products"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void shouldCreateCatalogInBatches() throws Exception {
+        MvcResult rawMaterials = mockMvc.perform(post("/api/raw-materials/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "items": [
+                        { "code": "RM-B1", "name": "Materia 1", "stockQuantity": 10.000 },
+                        { "code": "RM-B2", "name": "Materia 2", "stockQuantity": 4.000 }
+                      ]
+                    }
+                    """))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andReturn();
+        JsonNode rawMaterialNodes = objectMapper.readTree(rawMaterials.getResponse().getContentAsString());
+        long firstMaterialId = rawMaterialNodes.get(0).get("id").asLong();
+        long secondMaterialId = rawMaterialNodes.get(1).get("id").asLong();
+
+        MvcResult products = mockMvc.perform(post("/api/products/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "items": [
+                        { "code": "PRD-B1", "name": "Produto 1", "value": 40.00 },
+                        { "code": "PRD-B2", "name": "Produto 2", "value": 5.00 }
+                      ]
+                    }
+                    """))
+            .andExpect(status().isCreated())
+            .andReturn();
+        JsonNode productNodes = objectMapper.readTree(products.getResponse().getContentAsString());
+        long assemblyId = productNodes.get(0).get("id").asLong();
+        long partId = productNodes.get(1).get("id").asLong();
+
+        mockMvc.perform(post("/api/product-materials/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "items": [
+                        { "productId": %d, "rawMaterialId": %d, "requiredQuantity": 2.000 },
+                        { "productId": %d, "componentProductId": %d, "requiredQuantity": 1.000 },
+                        { "productId": %d, "rawMaterialId": %d, "requiredQuantity": 1.000 }
+                      ]
+                    }
+                    """.formatted(partId, firstMaterialId, assemblyId, partId, assemblyId, secondMaterialId)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$[1].componentProductCode").value("PRD-B2"));
+
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].productCode").value("PRD-B1"))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(4))
+            .andExpect(jsonPath("$.items[1].productCode").value("PRD-B2"))
+            .andExpect(jsonPath("$.items[1].suggestedQuantity").value(1));
+
+        mockMvc.perform(post("/api/raw-materials/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "items": [
+                        { "code": "RM-B3", "name": "Materia 3", "stockQuantity": 1.000 },
+                        { "code": "RM-B1", "name": "Repetida", "stockQuantity": 1.000 }
+                      ]
+                    }
+                    """))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("Raw material codes already in use: RM-B1"));
+
+        mockMvc.perform(post("/api/product-materials/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "items": [
+                        { "productId": %d, "componentProductId": %d, "requiredQuantity": 1.000 }
+                      ]
+                    }
+                    """.formatted(partId, assemblyId)))
+            .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/raw-materials"))
+            .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void shouldApplyStockSnapshotFromCsvAndReportRejectedRows() throws Exception {
+        Long steelId = createRawMaterial("RM-SNAP-1", "Aco", "1.000");
+        createRawMaterial("RM-SNAP-2", "Cobre", "2.000");
+        createRawMaterial("RM-SNAP-3", "Zinco", "3.000");
+        Long tinId = createRawMaterial("RM-SNAP-5", "Estanho", "5.000");
+        Long productId = createProduct("PRD-SNAP", "Produto", "10.00");
+        createComposition(productId, steelId, "1.000");
+
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(1));
+
+        mockMvc.perform(post("/api/raw-materials/stock-snapshot")
+                .contentType("text/csv")
+                .content("""
+                    code,stock_quantity
+                    RM-SNAP-1,25.5
+                    RM-SNAP-2,2.000
+                    RM-SNAP-3,-4
+                    RM-UNKNOWN,1
+                    RM-SNAP-4,abc
+                    RM-SNAP-5,5.0004
+                    "RM,QUOTED",1
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rowsRead").value(7))
+            .andExpect(jsonPath("$.updatedCount").value(1))
+            .andExpect(jsonPath("$.unchangedCount").value(1))
+            .andExpect(jsonPath("$.rejected[?(@.reason == 'negative_quantity')].sampleCodes[0]").value("RM-SNAP-3"))
+            .andExpect(jsonPath("$.rejected[?(@.reason == 'invalid_quantity')].count").value(2))
+            .andExpect(jsonPath("$.rejected[?(@.reason == 'unknown_code')].count").value(2));
+
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(25.5));
+        mockMvc.perform(get("/api/raw-materials/{id}", tinId))
+            .andExpect(jsonPath("$.stockQuantity").value(5.0));
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT raw_material_id || ':' || quantity_delta || ':' || resulting_quantity FROM stock_movements WHERE reason = ?",
+            String.class, "stock snapshot"
+        )).containsExactly(steelId + ":24.500:25.500");
+
+        double restocks = meterRegistry.get("planning.model.refresh").tag("kind", "restock").counter().count();
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(25));
+        assertThat(meterRegistry.get("planning.model.refresh").tag("kind", "restock").counter().count())
+            .isEqualTo(restocks + 1);
+
+        mockMvc.perform(post("/api/raw-materials/stock-snapshot")
+                .param("header", "false")
+                .contentType("text/csv")
+                .content("RM-SNAP-1,1,extra\n"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Stock snapshot could not be read: expected CSV rows of code,stock_quantity"));
+    }
+
+    @Test
+    void shouldRecordStockMovementsWithoutLosingConcurrentUpdates() throws Exception {
+        Long steelId = createRawMaterial("RM-MOV-1", "Aco", "10.000");
+        Long copperId = createRawMaterial("RM-MOV-2", "Cobre", "5.000");
+
+        mockMvc.perform(post("/api/raw-materials/{id}/movements", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"quantityDelta": -2.5, "reason": "consumo"}
+                    """))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.rawMaterialId").value(steelId))
+            .andExpect(jsonPath("$.resultingQuantity").value(7.5))
+            .andExpect(jsonPath("$.reason").value("consumo"));
+
+        mockMvc.perform(post("/api/raw-materials/{id}/movements", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"quantityDelta": -8}
+                    """))
+            .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/raw-materials/{id}/movements", 999999)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"quantityDelta": 1}
+                    """))
+            .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/api/raw-materials/movements/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [
+                      {"rawMaterialId": %d, "quantityDelta": 2},
+                      {"rawMaterialId": %d, "quantityDelta": -6}
+                    ]}
+                    """.formatted(steelId, copperId)))
+            .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(7.5));
+
+        mockMvc.perform(post("/api/raw-materials/movements/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [
+                      {"rawMaterialId": %d, "quantityDelta": 2.5},
+                      {"rawMaterialId": %d, "quantityDelta": -5},
+                      {"rawMaterialId": %d, "quantityDelta": 90}
+                    ]}
+                    """.formatted(steelId, copperId, steelId)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.recordedCount").value(3));
+
+        ExecutorService terminals = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> attempts = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                attempts.add(terminals.submit(() -> {
+                    try {
+                        stockMovementService.record(steelId, new StockMovementRequest(new BigDecimal("-1"), null));
+                        return true;
+                    } catch (ConflictException ex) {
+                        return false;
+                    }
+                }));
+            }
+            int accepted = 0;
+            for (Future<Boolean> attempt : attempts) {
+                accepted += attempt.get() ? 1 : 0;
+            }
+            assertThat(accepted).isEqualTo(100);
+        } finally {
+            terminals.shutdown();
+        }
+
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(0.0));
+        mockMvc.perform(get("/api/raw-materials/{id}", copperId))
+            .andExpect(jsonPath("$.stockQuantity").value(0.0));
+    }
+
+    @Test
+    void shouldNetTargetQuantitiesAgainstStock() throws Exception {
+        Long steelId = createRawMaterial("RM-REQ-1", "Aco", "10.000");
+        Long copperId = createRawMaterial("RM-REQ-2", "Cobre", "5.000");
+        createRawMaterial("RM-REQ-3", "Sem uso", "1.000");
+        Long frameId = createProduct("PRD-REQ-FRAME", "Estrutura", "10.00");
+        Long cableId = createProduct("PRD-REQ-CABLE", "Cabo", "5.00");
+        Long bikeId = createProduct("PRD-REQ-BIKE", "Bicicleta", "100.00");
+        Long emptyId = createProduct("PRD-REQ-EMPTY", "Sem composicao", "1.00");
+        createComposition(frameId, steelId, "2.000");
+        createComposition(cableId, steelId, "1.000");
+        createComposition(cableId, copperId, "1.000");
+        createComponent(bikeId, frameId, "2.000");
+
+        mockMvc.perform(post("/api/production-plan/requirements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"targets": [
+                      {"productId": %d, "quantity": 3},
+                      {"productId": %d, "quantity": 4},
+                      {"productId": %d, "quantity": 1},
+                      {"productId": %d, "quantity": 1}
+                    ]}
+                    """.formatted(frameId, cableId, bikeId, frameId)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.shortageCount").value(1))
+            .andExpect(jsonPath("$.requirements.length()").value(2))
+            .andExpect(jsonPath("$.requirements[0].rawMaterialCode").value("RM-REQ-1"))
+            .andExpect(jsonPath("$.requirements[0].grossRequirement").value(16.0))
+            .andExpect(jsonPath("$.requirements[0].availableQuantity").value(10.0))
+            .andExpect(jsonPath("$.requirements[0].shortfallQuantity").value(6.0))
+            .andExpect(jsonPath("$.requirements[1].rawMaterialCode").value("RM-REQ-2"))
+            .andExpect(jsonPath("$.requirements[1].grossRequirement").value(4.0))
+            .andExpect(jsonPath("$.requirements[1].shortfallQuantity").value(0.0));
+
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(10.0));
+        mockMvc.perform(post("/api/production-plan/requirements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"targets\": [{\"productId\": %d, \"quantity\": 1}]}".formatted(emptyId)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/production-plan/requirements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"targets\": [{\"productId\": 999999, \"quantity\": 1}]}"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/production-plan/requirements")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"targets\": []}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldCommitProductionPlansAndReportShortages() throws Exception {
+        Long steelId = createRawMaterial("RM-COMMIT-1", "Aco", "10.000");
+        Long copperId = createRawMaterial("RM-COMMIT-2", "Cobre", "3.000");
+        Long frameId = createProduct("PRD-COMMIT-1", "Estrutura", "10.00");
+        Long cableId = createProduct("PRD-COMMIT-2", "Cabo", "5.00");
+        createComposition(frameId, steelId, "2.000");
+        createComposition(cableId, steelId, "1.000");
+        createComposition(cableId, copperId, "1.000");
+
+        mockMvc.perform(post("/api/production-plan/commit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [{"productId": %d, "quantity": 3}, {"productId": %d, "quantity": 1}]}
+                    """.formatted(frameId, cableId)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalProductionValue").value(35.0))
+            .andExpect(jsonPath("$.consumption[0].rawMaterialId").value(steelId))
+            .andExpect(jsonPath("$.consumption[0].consumedQuantity").value(7.0))
+            .andExpect(jsonPath("$.consumption[0].remainingQuantity").value(3.0))
+            .andExpect(jsonPath("$.consumption[1].remainingQuantity").value(2.0));
+
+        mockMvc.perform(post("/api/production-plan/commit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [{"productId": %d, "quantity": 1}, {"productId": %d, "quantity": 3}]}
+                    """.formatted(frameId, cableId)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.shortages.length()").value(2))
+            .andExpect(jsonPath("$.shortages[0].rawMaterialCode").value("RM-COMMIT-1"))
+            .andExpect(jsonPath("$.shortages[0].requiredQuantity").value(5.0))
+            .andExpect(jsonPath("$.shortages[0].availableQuantity").value(3.0))
+            .andExpect(jsonPath("$.shortages[1].rawMaterialId").value(copperId));
+
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(3.0));
+
+        mockMvc.perform(post("/api/production-plan/commit"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].productId").value(frameId))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(1))
+            .andExpect(jsonPath("$.items[1].productId").value(cableId))
+            .andExpect(jsonPath("$.items[1].suggestedQuantity").value(1));
+
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    void shouldExposePlanningHttpAndPersistenceMetricsForPrometheus() throws Exception {
+        Long steelId = createRawMaterial("RM-METRICS", "Aco", "10.000");
+        Long productId = createProduct("PRD-METRICS", "Produto", "10.00");
+        createComposition(productId, steelId, "2.000");
+
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(scrape)
+            .contains("planning_phase_seconds_count{application=\"backend\",phase=\"allocate\"}")
+            .contains("planning_phase_seconds_count{application=\"backend\",phase=\"compile\"}")
+            .contains("planning_catalog_products{application=\"backend\"} 1.0")
+            .contains("planning_bom_lines{application=\"backend\"} 1.0")
+            .contains("http_server_requests_seconds_bucket")
+            .contains("uri=\"/api/production-plan/suggestions\"")
+            .contains("hikaricp_connections_active")
+            .contains("hibernate_statements_total");
+    }
+
+    @Test
+    void shouldKeepCatalogEndpointsWithinSqlStatementBudgets() throws Exception {
+        Long productId = createProduct("PRD-SQL-1", "Produto", "10.00");
+        createProduct("PRD-SQL-2", "Produto", "20.00");
+        Long rawMaterialId = createRawMaterial("RM-SQL-1", "Aco", "10.000");
+        createRawMaterial("RM-SQL-2", "Cobre", "10.000");
+
+        expectStatements(1, get("/api/products"), status().isOk());
+        String cursor = expectStatements(1, get("/api/products").param("limit", "1"), status().isOk())
+            .getResponse()
+            .getHeader("X-Next-Cursor");
+        expectStatements(1, get("/api/products").param("limit", "1").param("after", cursor), status().isOk());
+        expectStatements(1, get("/api/products/{id}", productId), status().isOk());
+        // inserts allow one extra statement: ids come from a pooled sequence fetched every 50 rows
+        expectStatements(3, post("/api/products")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"code": "PRD-SQL-3", "name": "Produto", "value": 5.00}
+                """), status().isCreated());
+        expectStatements(3, post("/api/products/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(batchOf(20, i -> """
+                {"code": "PRD-SQL-B%d", "name": "Produto", "value": 5.00}
+                """.formatted(i))), status().isCreated());
+        expectStatements(3, put("/api/products/{id}", productId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"code": "PRD-SQL-1", "name": "Produto Atualizado", "value": 11.00}
+                """), status().isOk());
+
+        expectStatements(1, get("/api/raw-materials"), status().isOk());
+        expectStatements(1, get("/api/raw-materials").param("limit", "1"), status().isOk());
+        expectStatements(1, get("/api/raw-materials/{id}", rawMaterialId), status().isOk());
+        expectStatements(3, post("/api/raw-materials")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"code": "RM-SQL-3", "name": "Zinco", "stockQuantity": 1.000}
+                """), status().isCreated());
+        expectStatements(3, post("/api/raw-materials/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(batchOf(20, i -> """
+                {"code": "RM-SQL-B%d", "name": "Materia", "stockQuantity": 1.000}
+                """.formatted(i))), status().isCreated());
+        expectStatements(3, put("/api/raw-materials/{id}", rawMaterialId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"code": "RM-SQL-1", "name": "Aco Atualizado", "stockQuantity": 12.000}
+                """), status().isOk());
+
+        Long compositionId = createComposition(productId, rawMaterialId, "1.000");
+        expectStatements(3, delete("/api/products/{id}", productId), status().isConflict());
+        expectStatements(2, delete("/api/raw-materials/{id}", rawMaterialId), status().isConflict());
+        expectStatements(2, delete("/api/product-materials/{id}", compositionId), status().isNoContent());
+        expectStatements(4, delete("/api/products/{id}", productId), status().isNoContent());
+        expectStatements(3, delete("/api/raw-materials/{id}", rawMaterialId), status().isNoContent());
+    }
+
+    @Test
+    void shouldKeepCompositionAndPlanningEndpointsWithinSqlStatementBudgets() throws Exception {
+        List<Long> rawMaterialIds = new ArrayList<>();
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rawMaterialIds.add(createRawMaterial("RM-SQLP-" + i, "Materia", "100.000"));
+            productIds.add(createProduct("PRD-SQLP-" + i, "Produto", "10.00"));
+        }
+        Long assemblyId = createProduct("PRD-SQLP-ASM", "Montagem", "90.00");
+
+        expectStatements(7, post("/api/product-materials")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"productId": %d, "componentProductId": %d, "requiredQuantity": 1.000}
+                """.formatted(assemblyId, productIds.get(0))), status().isCreated());
+        expectStatements(5, post("/api/product-materials/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(batchOf(20, i -> """
+                {"productId": %d, "rawMaterialId": %d, "requiredQuantity": 1.000}
+                """.formatted(productIds.get(i), rawMaterialIds.get(i)))), status().isCreated());
+        Long compositionId = createComposition(assemblyId, rawMaterialIds.get(0), "1.000");
+        expectStatements(1, get("/api/product-materials").param("productId", assemblyId.toString()), status().isOk());
+        expectStatements(5, put("/api/product-materials/{id}", compositionId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"productId": %d, "rawMaterialId": %d, "requiredQuantity": 2.000}
+                """.formatted(assemblyId, rawMaterialIds.get(1))), status().isOk());
+
+        // a full reload reads products, stock and compositions once each; afterwards the resident model answers
+        productionPlanModel.invalidate();
+        expectStatements(3, get("/api/production-plan/suggestions"), status().isOk());
+        expectStatements(0, get("/api/production-plan/suggestions"), status().isOk());
+        expectStatements(0, get("/api/production-plan/suggestions")
+            .param("strategy", "optimal")
+            .param("timeBudgetMs", "200"), status().isOk());
+        expectStatements(0, post("/api/production-plan/scenarios")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"scenarios": [{"name": "mais aco", "stockOverrides": [{"rawMaterialId": %d, "stockDelta": 50}]}]}
+                """.formatted(rawMaterialIds.get(0))), status().isOk());
+        // stock writes are set-based JdbcTemplate statements: no entity loads and no per-row round trips
+        expectStatements(2, post("/api/production-plan/commit"), status().isOk());
+        expectStatements(1, post("/api/raw-materials/{id}/movements", rawMaterialIds.get(0))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"quantityDelta": 5}
+                """), status().isCreated());
+        expectStatements(1, post("/api/raw-materials/movements/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"items\": [%s]}".formatted(rawMaterialIds.stream()
+                .map("{\"rawMaterialId\": %d, \"quantityDelta\": 1}"::formatted)
+                .collect(Collectors.joining(",")))), status().isCreated());
+        expectStatements(4, post("/api/raw-materials/stock-snapshot")
+            .contentType("text/csv")
+            .content("code,stock_quantity\nRM-SQLP-0,10\nRM-SQLP-1,10\n"), status().isOk());
+        expectStatements(3, get("/api/production-plan/suggestions"), status().isOk());
+    }
+
+    @Test
+    void shouldServeHotCatalogLookupsFromTheSecondLevelCache() throws Exception {
+        Long steelId = createRawMaterial("RM-CACHE-1", "Aco", "10.000");
+        Long productId = createProduct("PRD-CACHE-1", "Produto", "10.00");
+
+        expectStatements(1, get("/api/raw-materials/{id}", steelId), status().isOk());
+        expectStatements(0, get("/api/raw-materials/{id}", steelId), status().isOk());
+        expectStatements(1, get("/api/raw-materials"), status().isOk());
+        expectStatements(0, get("/api/raw-materials"), status().isOk());
+        expectStatements(1, get("/api/products/{id}", productId), status().isOk());
+        expectStatements(0, get("/api/products/{id}", productId), status().isOk());
+
+        // product and raw material come from the entity cache; only the duplicate check and the insert remain
+        expectStatements(3, post("/api/product-materials")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"productId": %d, "rawMaterialId": %d, "requiredQuantity": 1.000}
+                """.formatted(productId, steelId)), status().isCreated());
+
+        mockMvc.perform(post("/api/raw-materials/{id}/movements", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"quantityDelta": -4}
+                    """))
+            .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(6.0));
+        mockMvc.perform(get("/api/raw-materials"))
+            .andExpect(jsonPath("$[0].stockQuantity").value(6.0));
+
+        mockMvc.perform(post("/api/raw-materials/stock-snapshot")
+                .contentType("text/csv")
+                .content("code,stock_quantity\nRM-CACHE-1,8\n"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(8.0));
+
+        mockMvc.perform(post("/api/production-plan/commit"))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(0.0));
+
+        mockMvc.perform(put("/api/raw-materials/{id}", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"code": "RM-CACHE-1", "name": "Aco Renomeado", "stockQuantity": 3.000}
+                    """))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/raw-materials"))
+            .andExpect(jsonPath("$[0].name").value("Aco Renomeado"))
+            .andExpect(jsonPath("$[0].stockQuantity").value(3.0));
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        assertThat(scrape)
+            .contains("hibernate_second_level_cache_requests_total")
+            .contains("region=\"raw-materials\",result=\"hit\"")
+            .contains("region=\"products\",result=\"hit\"")
+            .contains("hibernate_cache_query_requests_total");
+    }
+
+    @Test
+    void shouldNotCacheRowsReadBeforeAJdbcWriteCommitted() throws Exception {
+        Long steelId = createRawMaterial("RM-STALE-1", "Aco", "10.000");
+
+        // the reader's snapshot predates the movement, but it loads the row and the listing only once the movement
+        // committed: evicting at commit alone would let it put both back into the cache with the old stock
+        TransactionTemplate reader = new TransactionTemplate(transactionManager);
+        reader.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        writer.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        reader.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            writer.executeWithoutResult(inner ->
+                stockMovementService.record(steelId, new StockMovementRequest(new BigDecimal("-4"), null)));
+
+            assertThat(rawMaterialRepository.findById(steelId).orElseThrow().getStockQuantity())
+                .isEqualByComparingTo("10.000");
+            assertThat(rawMaterialRepository.findAllResponses().get(0).stockQuantity())
+                .isEqualByComparingTo("10.000");
+        });
+
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(jsonPath("$.stockQuantity").value(6.0));
+        mockMvc.perform(get("/api/raw-materials"))
+            .andExpect(jsonPath("$[0].stockQuantity").value(6.0));
+    }
+
+    @Test
+    void shouldSyncCatalogByCodeWritingOnlyChangedRows() throws Exception {
+        Long steelId = createRawMaterial("RM-SYNC-1", "Aco", "10.000");
+        Long productId = createProduct("PRD-SYNC-1", "Produto", "10.00");
+        createComposition(productId, steelId, "2.000");
+        Timestamp untouched = jdbcTemplate.queryForObject(
+            "SELECT updated_at FROM products WHERE id = ?", Timestamp.class, productId
+        );
+
+        mockMvc.perform(get("/api/products/{id}", productId))
+            .andExpect(jsonPath("$.value").value(10.0));
+        mockMvc.perform(get("/api/product-materials").param("productId", productId.toString()))
+            .andExpect(jsonPath("$[0].rawMaterialName").value("Aco"));
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(jsonPath("$.totalProductionValue").value(50.0));
+
+        MvcResult firstSync = expectStatements(1, put("/api/products/sync")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"items": [
+                  {"code": "PRD-SYNC-1", "name": "Produto", "value": 10.00},
+                  {"code": " PRD-SYNC-2 ", "name": "Novo", "value": 4.00}
+                ]}
+                """), status().isOk());
+        JsonNode counts = objectMapper.readTree(firstSync.getResponse().getContentAsString());
+        assertThat(counts.get("insertedCount").asLong()).isEqualTo(1);
+        assertThat(counts.get("updatedCount").asLong()).isZero();
+        assertThat(counts.get("unchangedCount").asLong()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT updated_at FROM products WHERE id = ?", Timestamp.class, productId))
+            .isEqualTo(untouched);
+
+        mockMvc.perform(put("/api/products/sync")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [
+                      {"code": "PRD-SYNC-2", "name": "Novo", "value": 4.00},
+                      {"code": "PRD-SYNC-1", "name": "Produto", "value": 12.004}
+                    ]}
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.insertedCount").value(0))
+            .andExpect(jsonPath("$.updatedCount").value(1))
+            .andExpect(jsonPath("$.unchangedCount").value(1));
+
+        mockMvc.perform(put("/api/products/sync")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [
+                      {"code": "PRD-SYNC-1", "name": "Produto", "value": 12.00},
+                      {"code": "PRD-SYNC-2", "name": "Novo", "value": 4.00}
+                    ]}
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updatedCount").value(0))
+            .andExpect(jsonPath("$.unchangedCount").value(2));
+
+        mockMvc.perform(get("/api/products/{id}", productId))
+            .andExpect(jsonPath("$.value").value(12.0));
+
+        mockMvc.perform(put("/api/raw-materials/sync")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [
+                      {"code": "RM-SYNC-1", "name": "Aco Carbono", "stockQuantity": 4.000},
+                      {"code": "RM-SYNC-2", "name": "Cobre", "stockQuantity": 1.000}
+                    ]}
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.insertedCount").value(1))
+            .andExpect(jsonPath("$.updatedCount").value(1))
+            .andExpect(jsonPath("$.unchangedCount").value(0));
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT raw_material_id || ':' || quantity_delta || ':' || resulting_quantity FROM stock_movements WHERE reason = ?",
+            String.class, "catalog sync"
+        )).containsExactly(steelId + ":-6.000:4.000");
+
+        mockMvc.perform(get("/api/product-materials").param("productId", productId.toString()))
+            .andExpect(jsonPath("$[0].rawMaterialName").value("Aco Carbono"));
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(2))
+            .andExpect(jsonPath("$.totalProductionValue").value(24.0));
+
+        mockMvc.perform(put("/api/raw-materials/sync")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"items": [
+                      {"code": "RM-SYNC-3", "name": "Zinco", "stockQuantity": 1.000},
+                      {"code": "RM-SYNC-3", "name": "Zinco", "stockQuantity": 2.000}
+                    ]}
+                    """))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("Raw material code 'RM-SYNC-3' appears more than once in the batch"));
+
+        String master = batchOf(5000, i -> """
+            {"code": "PRD-SYNC-M%05d", "name": "Produto %d", "value": %d.00}
+            """.formatted(i, i, 1 + i % 90));
+        mockMvc.perform(put("/api/products/sync").contentType(MediaType.APPLICATION_JSON).content(master))
+            .andExpect(jsonPath("$.insertedCount").value(5000));
+        mockMvc.perform(put("/api/products/sync").contentType(MediaType.APPLICATION_JSON).content(master))
+            .andExpect(jsonPath("$.insertedCount").value(0))
+            .andExpect(jsonPath("$.updatedCount").value(0))
+            .andExpect(jsonPath("$.unchangedCount").value(5000));
+    }
+
     @Test
     void shouldBlockDeletionWhenAssociationsExist() throws Exception {
         Long steelId = createRawMaterial("RM-DEL", "Materia Prima", "2.000");
@@ -119,6 +1030,302 @@ class ApiIntegrationTest {
         mockMvc.perform(delete("/api/raw-materials/{id}", steelId))
             .andExpect(status().isConflict())
             .andExpect(jsonPath("$.message").value("Cannot delete raw material because it is associated with at least one product"));
+
+        Long movedId = createRawMaterial("RM-DEL-MOV", "Materia Movimentada", "2.000");
+        mockMvc.perform(post("/api/raw-materials/{id}/movements", movedId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"quantityDelta": -1}
+                    """))
+            .andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/raw-materials/{id}", movedId))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("Cannot delete raw material because it has recorded stock movements"));
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM stock_movements WHERE raw_material_id = ?", Long.class, movedId
+        )).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldPlanProductsBuiltFromComponentProducts() throws Exception {
+        Long steelId = createRawMaterial("RM-BOM", "Aco", "10.000");
+        Long frameId = createProduct("PRD-FRAME", "Quadro", "5.00");
+        Long bikeId = createProduct("PRD-BIKE", "Bicicleta", "100.00");
+        createComposition(frameId, steelId, "2.500");
+
+        mockMvc.perform(post("/api/product-materials")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "productId": %d,
+                      "componentProductId": %d,
+                      "requiredQuantity": 2.000
+                    }
+                    """.formatted(bikeId, frameId)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.componentProductCode").value("PRD-FRAME"))
+            .andExpect(jsonPath("$.rawMaterialId").doesNotExist());
+
+        mockMvc.perform(post("/api/product-materials")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "productId": %d,
+                      "componentProductId": %d,
+                      "requiredQuantity": 1.000
+                    }
+                    """.formatted(frameId, bikeId)))
+            .andExpect(status().isConflict());
+
+        mockMvc.perform(post("/api/product-materials")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "productId": %d,
+                      "rawMaterialId": %d,
+                      "componentProductId": %d,
+                      "requiredQuantity": 1.000
+                    }
+                    """.formatted(bikeId, steelId, frameId)))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/production-plan/suggestions"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].productCode").value("PRD-BIKE"))
+            .andExpect(jsonPath("$.items[0].suggestedQuantity").value(2))
+            .andExpect(jsonPath("$.items.length()").value(1));
+
+        mockMvc.perform(delete("/api/products/{id}", frameId))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("Cannot delete product because it is a component of another product"));
+    }
+
+    @Test
+    void shouldMaintainBuildabilitySummaryOnEveryWritePath() throws Exception {
+        Long steelId = createRawMaterial("RM-BA-STEEL", "Aco", "10.000");
+        Long paintId = createRawMaterial("RM-BA-PAINT", "Tinta", "3.000");
+        Long bikeId = createProduct("PRD-BA-BIKE", "Bicicleta", "100.00");
+        Long emptyId = createProduct("PRD-BA-EMPTY", "Sem composicao", "1.00");
+        Long frameId = createProduct("PRD-BA-FRAME", "Quadro", "5.00");
+        Long kitId = createProduct("PRD-BA-KIT", "Kit", "50.00");
+        Long wheelId = createProduct("PRD-BA-WHEEL", "Roda", "20.00");
+        createComposition(frameId, steelId, "2.500");
+        createComposition(wheelId, steelId, "0.500");
+        createComposition(wheelId, paintId, "1.000");
+        createComposition(kitId, paintId, "1.000");
+        createComponent(bikeId, frameId, "2.000");
+        Long kitEmptyId = createComponent(kitId, emptyId, "1.000");
+
+        MvcResult first = mockMvc.perform(get("/api/products/buildability").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("X-Next-Cursor"))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].productCode").value("PRD-BA-BIKE"))
+            .andExpect(jsonPath("$[0].buildableQuantity").value(2))
+            .andExpect(jsonPath("$[0].limitingRawMaterialCode").value("RM-BA-STEEL"))
+            .andExpect(jsonPath("$[1].productCode").value("PRD-BA-EMPTY"))
+            .andExpect(jsonPath("$[1].buildableQuantity").value(0))
+            .andExpect(jsonPath("$[1].limitingRawMaterialId").doesNotExist())
+            .andReturn();
+        MvcResult second = mockMvc.perform(get("/api/products/buildability").param("limit", "2")
+                .param("after", first.getResponse().getHeader("X-Next-Cursor")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].productCode").value("PRD-BA-FRAME"))
+            .andExpect(jsonPath("$[0].buildableQuantity").value(4))
+            .andExpect(jsonPath("$[1].productCode").value("PRD-BA-KIT"))
+            .andExpect(jsonPath("$[1].buildableQuantity").value(0))
+            .andReturn();
+        mockMvc.perform(get("/api/products/buildability").param("limit", "2")
+                .param("after", second.getResponse().getHeader("X-Next-Cursor")))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Next-Cursor"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].productCode").value("PRD-BA-WHEEL"))
+            .andExpect(jsonPath("$[0].buildableQuantity").value(3))
+            .andExpect(jsonPath("$[0].limitingRawMaterialCode").value("RM-BA-PAINT"));
+
+        assertThat(pagedCodes("quantity", 3))
+            .containsExactly("PRD-BA-EMPTY", "PRD-BA-KIT", "PRD-BA-BIKE", "PRD-BA-WHEEL", "PRD-BA-FRAME");
+        assertThat(pagedCodes("bottleneck", 2))
+            .containsExactly("PRD-BA-BIKE", "PRD-BA-FRAME", "PRD-BA-WHEEL", "PRD-BA-EMPTY", "PRD-BA-KIT");
+        mockMvc.perform(get("/api/products/buildability").param("minQuantity", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].productCode").value(contains("PRD-BA-FRAME", "PRD-BA-WHEEL")));
+        mockMvc.perform(get("/api/products/buildability").param("maxQuantity", "0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].productCode").value(contains("PRD-BA-EMPTY", "PRD-BA-KIT")));
+
+        mockMvc.perform(post("/api/raw-materials/{id}/movements", paintId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantityDelta\": 3.000}"))
+            .andExpect(status().isCreated());
+        mockMvc.perform(put("/api/raw-materials/{id}", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "code": "RM-BA-STEEL",
+                      "name": "Aco",
+                      "stockQuantity": 40.000
+                    }
+                    """))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/product-materials/{id}", kitEmptyId))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/products/buildability").param("sort", "quantity"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[*].productCode")
+                .value(contains("PRD-BA-EMPTY", "PRD-BA-KIT", "PRD-BA-WHEEL", "PRD-BA-BIKE", "PRD-BA-FRAME")))
+            .andExpect(jsonPath("$[1].buildableQuantity").value(6))
+            .andExpect(jsonPath("$[1].limitingRawMaterialCode").value("RM-BA-PAINT"))
+            .andExpect(jsonPath("$[2].buildableQuantity").value(6))
+            .andExpect(jsonPath("$[3].buildableQuantity").value(8))
+            .andExpect(jsonPath("$[4].buildableQuantity").value(16));
+
+        mockMvc.perform(get("/api/products/buildability").param("sort", "cheapest"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/buildability").param("minQuantity", "-1"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products/buildability").param("sort", "quantity").param("after", "eA"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private List<String> pagedCodes(String sort, int limit) throws Exception {
+        List<String> codes = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/products/buildability")
+                .param("sort", sort)
+                .param("limit", String.valueOf(limit));
+            if (cursor != null) {
+                request.param("after", cursor);
+            }
+            MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+            objectMapper.readTree(result.getResponse().getContentAsString())
+                .forEach(item -> codes.add(item.get("productCode").asText()));
+            cursor = result.getResponse().getHeader("X-Next-Cursor");
+        } while (cursor != null);
+        return codes;
+    }
+
+    @Test
+    void shouldRefreshBuildabilityOfConcurrentStockMovementsWithoutDeadlocking() throws Exception {
+        Long aId = createRawMaterial("RM-LOCK-A", "A", "100.000");
+        Long bId = createRawMaterial("RM-LOCK-B", "B", "100.000");
+        Long cId = createRawMaterial("RM-LOCK-C", "C", "100.000");
+        Long onlyAId = createProduct("PRD-LOCK-1", "Usa A", "10.00");
+        Long bAndCId = createProduct("PRD-LOCK-2", "Usa B e C", "10.00");
+        Long aAndCId = createProduct("PRD-LOCK-3", "Usa A e C", "10.00");
+        createComposition(onlyAId, aId, "1.000");
+        createComposition(bAndCId, bId, "1.000");
+        createComposition(bAndCId, cId, "1.000");
+        createComposition(aAndCId, aId, "1.000");
+        createComposition(aAndCId, cId, "1.000");
+
+        // the batch moves A (products 1 and 3), the single movement moves C (products 2 and 3) in between, and
+        // only then the batch moves B (product 2): refreshing per statement would lock 3 then wait for 2, and the
+        // single movement the other way round
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch firstMoved = new CountDownLatch(1);
+        CountDownLatch singleMoved = new CountDownLatch(1);
+        ExecutorService terminals = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> batch = terminals.submit(() -> transaction.executeWithoutResult(status -> {
+                stockMovementService.record(aId, new StockMovementRequest(new BigDecimal("-10"), null));
+                firstMoved.countDown();
+                awaitQuietly(singleMoved);
+                stockMovementService.record(bId, new StockMovementRequest(new BigDecimal("-20"), null));
+            }));
+            Future<?> single = terminals.submit(() -> {
+                awaitQuietly(firstMoved);
+                stockMovementService.record(cId, new StockMovementRequest(new BigDecimal("-30"), null));
+                singleMoved.countDown();
+            });
+            batch.get(30, TimeUnit.SECONDS);
+            single.get(30, TimeUnit.SECONDS);
+        } finally {
+            terminals.shutdown();
+        }
+
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT buildable_quantity FROM product_buildability WHERE product_id IN (?, ?, ?) ORDER BY product_id",
+            Long.class, onlyAId, bAndCId, aAndCId
+        )).containsExactly(90L, 70L, 70L);
+    }
+
+    @Test
+    void shouldListWhereRawMaterialsAreUsedAndTheImpactOfStockChanges() throws Exception {
+        Long steelId = createRawMaterial("RM-WU-STEEL", "Aco", "10.000");
+        Long paintId = createRawMaterial("RM-WU-PAINT", "Tinta", "3.000");
+        Long frameId = createProduct("PRD-WU-FRAME", "Quadro", "5.00");
+        Long bikeId = createProduct("PRD-WU-BIKE", "Bicicleta", "100.00");
+        createComposition(frameId, steelId, "2.500");
+        mockMvc.perform(post("/api/product-materials")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "productId": %d,
+                      "componentProductId": %d,
+                      "requiredQuantity": 2.000
+                    }
+                    """.formatted(bikeId, frameId)))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/raw-materials/{id}/where-used", steelId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.stockQuantity").value(10.0))
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[0].productCode").value("PRD-WU-BIKE"))
+            .andExpect(jsonPath("$.items[0].requiredQuantity").value(5.0))
+            .andExpect(jsonPath("$.items[0].buildableQuantity").value(2))
+            .andExpect(jsonPath("$.items[1].productCode").value("PRD-WU-FRAME"))
+            .andExpect(jsonPath("$.items[1].buildableQuantity").value(4));
+        mockMvc.perform(get("/api/raw-materials/{id}/where-used", paintId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(0));
+
+        Long wheelId = createProduct("PRD-WU-WHEEL", "Roda", "20.00");
+        Long wheelSteelId = createComposition(wheelId, steelId, "0.500");
+        createComposition(wheelId, paintId, "1.000");
+
+        mockMvc.perform(post("/api/raw-materials/{id}/impact", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockDelta\": -5.000}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.currentStockQuantity").value(10.0))
+            .andExpect(jsonPath("$.proposedStockQuantity").value(5.0))
+            .andExpect(jsonPath("$.items.length()").value(3))
+            .andExpect(jsonPath("$.items[0].productCode").value("PRD-WU-BIKE"))
+            .andExpect(jsonPath("$.items[0].currentBuildableQuantity").value(2))
+            .andExpect(jsonPath("$.items[0].proposedBuildableQuantity").value(1))
+            .andExpect(jsonPath("$.items[1].productCode").value("PRD-WU-WHEEL"))
+            .andExpect(jsonPath("$.items[1].currentBuildableQuantity").value(3))
+            .andExpect(jsonPath("$.items[1].proposedBuildableQuantity").value(3))
+            .andExpect(jsonPath("$.items[2].productCode").value("PRD-WU-FRAME"))
+            .andExpect(jsonPath("$.items[2].proposedBuildableQuantity").value(2));
+
+        mockMvc.perform(delete("/api/product-materials/{id}", wheelSteelId))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/raw-materials/{id}/impact", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockQuantity\": 0}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[0].proposedBuildableQuantity").value(0));
+        mockMvc.perform(get("/api/raw-materials/{id}", steelId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.stockQuantity").value(10.0));
+
+        mockMvc.perform(post("/api/raw-materials/{id}/impact", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockQuantity\": 1, \"stockDelta\": 1}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/raw-materials/{id}/impact", steelId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stockDelta\": -10.001}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/raw-materials/{id}/where-used", 999_999L))
+            .andExpect(status().isNotFound());
     }
 
     @Test
@@ -136,6 +1343,36 @@ class ApiIntegrationTest {
             .andExpect(jsonPath("$.error").value("Bad Request"));
     }
 
+    /**
+     * Performs the request and fails when more SQL statements than {@code maxStatements} were created on the
+     * JDBC connections while serving it. MockMvc runs the request on the test thread, where the counter is kept.
+     */
+    private MvcResult expectStatements(int maxStatements, MockHttpServletRequestBuilder request, ResultMatcher status)
+        throws Exception {
+        long before = sqlStatementCounter.count();
+        MvcResult result = mockMvc.perform(request).andExpect(status).andReturn();
+        long executed = sqlStatementCounter.count() - before;
+        assertThat(executed)
+            .as("SQL statements for %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+            .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String batchOf(int size, IntFunction<String> item) {
+        return IntStream.range(0, size)
+            .mapToObj(item)
+            .map(String::strip)
+            .collect(Collectors.joining(",", "{\"items\": [", "]}"));
+    }
+
     private Long createProduct(String code, String name, String value) throws Exception {
         MvcResult result = mockMvc.perform(post("/api/products")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -170,6 +1407,23 @@ class ApiIntegrationTest {
         return node.get("id").asLong();
     }
 
+    private Long createComponent(Long productId, Long componentProductId, String requiredQuantity) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/product-materials")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {
+                      "productId": %d,
+                      "componentProductId": %d,
+                      "requiredQuantity": %s
+                    }
+                    """.formatted(productId, componentProductId, requiredQuantity)))
+            .andExpect(status().isCreated())
+            .andReturn();
+
+        JsonNode node = objectMapper.readTree(result.getResponse().getContentAsString());
+        return node.get("id").asLong();
+    }
+
     private Long createComposition(Long productId, Long rawMaterialId, String requiredQuantity) throws Exception {
         MvcResult result = mockMvc.perform(post("/api/product-materials")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -0,0 +1,299 @@
+package com.projedata.inventory.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projedata.inventory.service.ProductionPlanModel;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load harness: boots the application on an embedded PostgreSQL (no Docker or network needed once the
+ * Maven dependencies are resolved), seeds a catalog and drives a weighted mix of catalog reads, composition edits,
+ * plan requests and stock movements with closed-loop clients. Throughput, latency percentiles and error rates are
+ * printed per endpoint and written to {@code target/loadtest-report.json}. Opt-in:
+ * <pre>
+ * mvn test -Dtest=ApiLoadTest -Dloadtest=true -Dloadtest.clients=64 -Dloadtest.seconds=60
+ * </pre>
+ * Dataset: {@code loadtest.products}, {@code loadtest.rawMaterials}, {@code loadtest.linesPerProduct}. Mix:
+ * {@code loadtest.mix}, e.g. {@code GET_PLAN=40,MOVE_STOCK=0}. {@code loadtest.jdbcUrl} (with {@code .username}
+ * and {@code .password}) runs against an existing database instead of the embedded one.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ApiLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    private static EmbeddedPostgres embeddedPostgres;
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) throws IOException {
+        String jdbcUrl = System.getProperty("loadtest.jdbcUrl");
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.username", "projedata"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.password", "projedata"));
+            return;
+        }
+
+        embeddedPostgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> embeddedPostgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductionPlanModel productionPlanModel;
+
+    private long[] productIds;
+    private long[] rawMaterialIds;
+    private List<long[]> compositions;
+
+    @Test
+    void shouldDriveMixedWorkloadAndReportPerEndpoint() throws Exception {
+        int products = Integer.getInteger("loadtest.products", 2_000);
+        int rawMaterials = Integer.getInteger("loadtest.rawMaterials", 200);
+        int linesPerProduct = Integer.getInteger("loadtest.linesPerProduct", 5);
+        int clients = Integer.getInteger("loadtest.clients", 32);
+        Duration measured = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 30));
+        Map<Operation, Integer> mix = mix(System.getProperty("loadtest.mix", ""));
+
+        seed(products, rawMaterials, linesPerProduct);
+
+        LoadReport report = new LoadReport(Arrays.stream(Operation.values()).map(Operation::label).toList());
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + measured.toNanos();
+
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                running.add(pool.submit(() -> drive(client, mix, report, measureFrom, measureUntil)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+
+        double seconds = measured.toMillis() / 1000.0;
+        System.out.printf(
+            "load test | %d products, %d raw materials, %d lines/product | %d clients, %.0fs | mix %s%n%s",
+            products, rawMaterials, linesPerProduct, clients, seconds, mix, report.render(seconds)
+        );
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("products", products);
+        json.put("rawMaterials", rawMaterials);
+        json.put("linesPerProduct", linesPerProduct);
+        json.put("clients", clients);
+        json.put("seconds", seconds);
+        json.put("mix", mix);
+        json.put("endpoints", report.rows(seconds));
+        Path output = Path.of("target", "loadtest-report.json");
+        Files.createDirectories(output.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), json);
+
+        for (LoadReport.Row row : report.rows(seconds)) {
+            assertThat(row.statusCounts()).as(row.endpoint()).doesNotContainKeys("5xx", "transport");
+        }
+    }
+
+    private void drive(HttpClient client, Map<Operation, Integer> mix, LoadReport report, long measureFrom, long measureUntil) {
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < measureUntil) {
+            Operation operation = pick(mix, ThreadLocalRandom.current().nextInt(totalWeight));
+            HttpRequest request = request(operation);
+            long started = System.nanoTime();
+            int status = 0;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = 0;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long finished = System.nanoTime();
+            if (started >= measureFrom && finished <= measureUntil) {
+                if (status == 0) {
+                    report.recordFailure(operation.label(), finished - started);
+                } else {
+                    report.record(operation.label(), finished - started, status);
+                }
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LIST_PRODUCTS -> get("/api/products?limit=50");
+            case GET_RAW_MATERIAL -> get("/api/raw-materials/" + rawMaterialIds[random.nextInt(rawMaterialIds.length)]);
+            case LIST_COMPOSITION -> get("/api/product-materials?productId=" + productIds[random.nextInt(productIds.length)]);
+            case GET_PLAN -> get("/api/production-plan/suggestions");
+            case EDIT_COMPOSITION -> {
+                long[] composition = compositions.get(random.nextInt(compositions.size()));
+                yield send("PUT", "/api/product-materials/" + composition[0], """
+                    {"productId": %d, "rawMaterialId": %d, "requiredQuantity": %d.%03d}
+                    """.formatted(composition[1], composition[2], random.nextInt(1, 10), random.nextInt(1000)));
+            }
+            case MOVE_STOCK -> send(
+                "POST",
+                "/api/raw-materials/" + rawMaterialIds[random.nextInt(rawMaterialIds.length)] + "/movements",
+                """
+                    {"quantityDelta": %d, "reason": "load test"}
+                    """.formatted(random.nextBoolean() ? random.nextInt(1, 50) : -random.nextInt(1, 40))
+            );
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+            .timeout(Duration.ofSeconds(60))
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private void seed(int products, int rawMaterials, int linesPerProduct) {
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM product_raw_materials");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM raw_materials");
+
+        jdbcTemplate.execute("SELECT setseed(0.16)");
+        jdbcTemplate.update("""
+            INSERT INTO raw_materials (code, name, stock_quantity)
+            SELECT 'LOAD-RM-' || LPAD(g::text, 6, '0'), 'Materia ' || g, 100000 + (g * 37) % 50000
+            FROM generate_series(1, ?) g
+            """, rawMaterials);
+        jdbcTemplate.update("""
+            INSERT INTO products (code, name, value)
+            SELECT 'LOAD-P-' || LPAD(g::text, 6, '0'), 'Produto ' || g, 10 + (g * 53) % 990
+            FROM generate_series(1, ?) g
+            """, products);
+        jdbcTemplate.update("""
+            INSERT INTO product_raw_materials (product_id, raw_material_id, required_quantity)
+            SELECT p.id, r.id, 1 + floor(random() * 9)
+            FROM products p
+            CROSS JOIN LATERAL (
+                SELECT id FROM raw_materials ORDER BY random() + p.id * 0 LIMIT ?
+            ) r
+            """, linesPerProduct);
+        productionPlanModel.invalidate();
+
+        productIds = jdbcTemplate.queryForList("SELECT id FROM products", Long.class).stream().mapToLong(Long::longValue).toArray();
+        rawMaterialIds = jdbcTemplate.queryForList("SELECT id FROM raw_materials", Long.class).stream().mapToLong(Long::longValue).toArray();
+        compositions = jdbcTemplate.query(
+            "SELECT id, product_id, raw_material_id FROM product_raw_materials",
+            (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3)}
+        );
+    }
+
+    private static Map<Operation, Integer> mix(String overrides) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            mix.put(operation, operation.defaultWeight());
+        }
+        for (String entry : overrides.split(",")) {
+            if (!entry.isBlank()) {
+                String[] parts = entry.split("=");
+                mix.put(Operation.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        mix.values().removeIf(weight -> weight <= 0);
+        return mix;
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix, int ticket) {
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty workload mix");
+    }
+
+    private enum Operation {
+        LIST_PRODUCTS("GET /api/products?limit=50", 20),
+        GET_RAW_MATERIAL("GET /api/raw-materials/{id}", 15),
+        LIST_COMPOSITION("GET /api/product-materials?productId={id}", 15),
+        GET_PLAN("GET /api/production-plan/suggestions", 15),
+        EDIT_COMPOSITION("PUT /api/product-materials/{id}", 10),
+        MOVE_STOCK("POST /api/raw-materials/{id}/movements", 25);
+
+        private final String label;
+        private final int defaultWeight;
+
+        Operation(String label, int defaultWeight) {
+            this.label = label;
+            this.defaultWeight = defaultWeight;
+        }
+
+        String label() {
+            return label;
+        }
+
+        int defaultWeight() {
+            return defaultWeight;
+        }
+    }
+}
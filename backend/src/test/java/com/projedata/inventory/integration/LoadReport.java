@@ -0,0 +1,104 @@
+package com.projedata.inventory.integration;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint latency samples and outcome counts collected by {@link ApiLoadTest}.
+ */
+final class LoadReport {
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    LoadReport(List<String> labels) {
+        labels.forEach(label -> endpoints.put(label, new Endpoint()));
+    }
+
+    void record(String label, long latencyNanos, int status) {
+        endpoints.get(label).record(latencyNanos, status);
+    }
+
+    void recordFailure(String label, long latencyNanos) {
+        endpoints.get(label).record(latencyNanos, 0);
+    }
+
+    List<Row> rows(double seconds) {
+        return endpoints.entrySet().stream()
+            .map(entry -> entry.getValue().summarize(entry.getKey(), seconds))
+            .toList();
+    }
+
+    String render(double seconds) {
+        StringBuilder table = new StringBuilder(String.format(
+            "%-44s %9s %9s %9s %9s %9s %9s %8s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors"
+        ));
+        for (Row row : rows(seconds)) {
+            table.append(String.format(
+                "%-44s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %7.2f%%%n",
+                row.endpoint(), row.requests(), row.throughputPerSecond(),
+                row.p50Millis(), row.p90Millis(), row.p99Millis(), row.maxMillis(), row.errorRate() * 100
+            ));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Summary of one endpoint. {@code statusCounts} is keyed by status class ({@code 2xx}, {@code 4xx}, ...) plus
+     * {@code transport} for requests that got no response; anything but {@code 2xx} counts as an error.
+     */
+    record Row(
+        String endpoint,
+        int requests,
+        double throughputPerSecond,
+        double p50Millis,
+        double p90Millis,
+        double p99Millis,
+        double maxMillis,
+        double errorRate,
+        Map<String, Integer> statusCounts
+    ) {
+    }
+
+    private static final class Endpoint {
+
+        private long[] latencies = new long[4096];
+        private int size;
+        private final Map<String, Integer> statusCounts = new LinkedHashMap<>();
+
+        synchronized void record(long latencyNanos, int status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            statusCounts.merge(status == 0 ? "transport" : (status / 100) + "xx", 1, Integer::sum);
+        }
+
+        synchronized Row summarize(String label, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            int errors = size - statusCounts.getOrDefault("2xx", 0);
+            return new Row(
+                label,
+                size,
+                size / seconds,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.90),
+                percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0,
+                size == 0 ? 0 : errors / (double) size,
+                Map.copyOf(statusCounts)
+            );
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.projedata.inventory.integration;
+
+import com.projedata.inventory.repository.ProductRawMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.ProductionPlanModel;
+import com.projedata.inventory.service.ReactiveCatalogService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same catalog reads through the blocking endpoints (Tomcat thread + Hikari connection per request) and
+ * their reactive twins under {@code /api/reactive} (R2DBC pool, rows streamed as NDJSON) with many concurrent
+ * clients, and reports throughput, p50/p99 latency, and the peak number of busy Tomcat request threads and of
+ * connections in use per path. Opt-in:
+ * <pre>
+ * mvn test -Dtest=ReactiveReadBenchmarkTest -Dbenchmark=true
+ * </pre>
+ * Busy threads are only counted for the platform thread pool; with virtual threads they are reported as 0.
+ * Client count and duration per path can be changed with {@code -Dbenchmark.clients} and {@code -Dbenchmark.seconds}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ReactiveReadBenchmarkTest {
+
+    private static final int PRODUCTS = 2_000;
+    private static final int RAW_MATERIALS = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    @SuppressWarnings("resource") // falso positivo: container is managed by Testcontainers lifecycle
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+        .withDatabaseName("projedata")
+        .withUsername("projedata")
+        .withPassword("projedata");
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        // both paths read from the database: the blocking listings would otherwise be served by the query cache
+        registry.add("spring.jpa.properties.hibernate.cache.use_query_cache", () -> "false");
+        registry.add("app.reactive.enabled", () -> "true");
+        registry.add("app.reactive.r2dbc-url",
+            () -> "r2dbc:postgresql://%s:%d/projedata".formatted(postgres.getHost(), postgres.getFirstMappedPort()));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ServletWebServerApplicationContext webServerContext;
+
+    @Autowired
+    private ReactiveCatalogService reactiveCatalogService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductionPlanModel productionPlanModel;
+
+    @AfterEach
+    void cleanDatabase() {
+        productRawMaterialRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        rawMaterialRepository.deleteAllInBatch();
+        productionPlanModel.invalidate();
+    }
+
+    @Test
+    void shouldReportThreadAndConnectionUsagePerReadPath() throws Exception {
+        seedCatalog();
+        Long productId = jdbcTemplate.queryForObject("SELECT min(product_id) FROM product_raw_materials", Long.class);
+
+        int clients = Integer.getInteger("benchmark.clients", 200);
+        Duration measured = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 10));
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        Executor requestExecutor = ((TomcatWebServer) webServerContext.getWebServer())
+            .getTomcat().getConnector().getProtocolHandler().getExecutor();
+        IntSupplier busyThreads = requestExecutor instanceof ThreadPoolExecutor pool ? pool::getActiveCount : () -> 0;
+
+        Result blocking = run("blocking", clients, measured, List.of(
+            "/api/products", "/api/raw-materials", "/api/product-materials?productId=" + productId
+        ), busyThreads, () -> hikari.getHikariPoolMXBean().getActiveConnections());
+        Result reactive = run("reactive", clients, measured, List.of(
+            "/api/reactive/products", "/api/reactive/raw-materials", "/api/reactive/product-materials?productId=" + productId
+        ), busyThreads, reactiveCatalogService::acquiredConnections);
+
+        System.out.printf("%d clients, %ds per path, %d products%n", clients, measured.toSeconds(), PRODUCTS);
+        for (Result result : List.of(blocking, reactive)) {
+            System.out.printf("  %-8s %8.1f req/s | p50 %8.1f ms | p99 %8.1f ms | peak busy threads %4d | peak connections %3d%n",
+                result.name(),
+                result.latencies().length / (double) measured.toSeconds(),
+                percentile(result.latencies(), 0.50) / 1_000_000.0,
+                percentile(result.latencies(), 0.99) / 1_000_000.0,
+                result.peakThreads(),
+                result.peakConnections()
+            );
+        }
+
+        assertThat(blocking.failures()).isZero();
+        assertThat(reactive.failures()).isZero();
+        assertThat(reactive.latencies()).isNotEmpty();
+    }
+
+    private Result run(
+        String name,
+        int clients,
+        Duration measured,
+        List<String> paths,
+        IntSupplier busyThreads,
+        IntSupplier connectionsInUse
+    ) throws Exception {
+        Samples samples = new Samples();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger peakThreads = new AtomicInteger();
+        AtomicInteger peakConnections = new AtomicInteger();
+
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + measured.toNanos();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            if (System.nanoTime() >= measureFrom) {
+                peakThreads.accumulateAndGet(busyThreads.getAsInt(), Math::max);
+                peakConnections.accumulateAndGet(connectionsInUse.getAsInt(), Math::max);
+            }
+        }, 0, 5, TimeUnit.MILLISECONDS);
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                int offset = i;
+                running.add(pool.submit(() -> drive(client, paths, offset, samples, failures, measureFrom, measureUntil)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+
+        return new Result(name, samples.sorted(), failures.get(), peakThreads.get(), peakConnections.get());
+    }
+
+    private void drive(
+        HttpClient client,
+        List<String> paths,
+        int offset,
+        Samples samples,
+        AtomicInteger failures,
+        long measureFrom,
+        long measureUntil
+    ) {
+        int next = offset;
+        while (System.nanoTime() < measureUntil) {
+            String path = paths.get(next++ % paths.size());
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", path.startsWith("/api/reactive") ? "application/x-ndjson" : "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+            } catch (Exception ex) {
+                failures.incrementAndGet();
+            }
+            long finished = System.nanoTime();
+            if (started >= measureFrom && finished <= measureUntil) {
+                samples.add(finished - started);
+            }
+        }
+    }
+
+    private void seedCatalog() {
+        jdbcTemplate.execute("SELECT setseed(0.42)");
+        jdbcTemplate.update("""
+            INSERT INTO raw_materials (code, name, stock_quantity)
+            SELECT 'BENCH-RM-' || LPAD(g::text, 4, '0'), 'Materia ' || g, 500 + (g * 37) % 400
+            FROM generate_series(1, ?) g
+            """, RAW_MATERIALS);
+        jdbcTemplate.update("""
+            INSERT INTO products (code, name, value)
+            SELECT 'BENCH-P-' || LPAD(g::text, 4, '0'), 'Produto ' || g, 10 + (g * 53) % 90
+            FROM generate_series(1, ?) g
+            """, PRODUCTS);
+        jdbcTemplate.update("""
+            INSERT INTO product_raw_materials (product_id, raw_material_id, required_quantity)
+            SELECT p.id, r.id, 1 + floor(random() * 9)
+            FROM products p
+            CROSS JOIN LATERAL (
+                SELECT id FROM raw_materials ORDER BY random() + p.id * 0 LIMIT 4
+            ) r
+            """);
+        productionPlanModel.invalidate();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private record Result(String name, long[] latencies, int failures, int peakThreads, int peakConnections) {
+    }
+
+    private static final class Samples {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
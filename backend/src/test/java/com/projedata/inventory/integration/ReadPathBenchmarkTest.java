@@ -0,0 +1,138 @@
+package com.projedata.inventory.integration;
+
+import com.projedata.inventory.dto.ProductResponse;
+import com.projedata.inventory.repository.ProductRawMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.ProductionPlanModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the entity read path (load managed entities, copy into the response record) with the constructor
+ * projection the list endpoints use. Opt-in: {@code mvn test -Dtest=ReadPathBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadPathBenchmarkTest {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @SuppressWarnings("resource") // falso positivo: container is managed by Testcontainers lifecycle
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+        .withDatabaseName("projedata")
+        .withUsername("projedata")
+        .withPassword("projedata");
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductionPlanModel productionPlanModel;
+
+    @AfterEach
+    void cleanDatabase() {
+        productRawMaterialRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        rawMaterialRepository.deleteAllInBatch();
+        productionPlanModel.invalidate();
+    }
+
+    @Test
+    void shouldReadProductListingsWithoutHydratingEntities() {
+        jdbcTemplate.update("""
+            INSERT INTO products (code, name, value)
+            SELECT 'BENCH-' || LPAD(g::text, 6, '0'), 'Produto ' || g, (g % 500) + 1
+            FROM generate_series(1, ?) g
+            """, PRODUCTS);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<ProductResponse>> entities = () -> readOnly.execute(status ->
+            productRepository.findAllByOrderByValueDescCodeAsc().stream()
+                .map(product -> new ProductResponse(product.getId(), product.getCode(), product.getName(), product.getValue()))
+                .toList()
+        );
+        Supplier<List<ProductResponse>> projection = () -> readOnly.execute(status -> productRepository.findAllResponses());
+
+        assertThat(projection.get()).isEqualTo(entities.get());
+
+        Measurement entityPath = measure(entities);
+        Measurement projectionPath = measure(projection);
+
+        System.out.printf(
+            "%d products | entities: %.2f ms, %.1f MB/op | projection: %.2f ms, %.1f MB/op%n",
+            PRODUCTS,
+            entityPath.millisPerOp(), entityPath.megabytesPerOp(),
+            projectionPath.millisPerOp(), projectionPath.megabytesPerOp()
+        );
+        assertThat(projectionPath.megabytesPerOp()).isLessThan(entityPath.megabytesPerOp());
+    }
+
+    private static Measurement measure(Supplier<List<ProductResponse>> read) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            read.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long started = System.nanoTime();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            read.get();
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        return new Measurement(
+            elapsed / 1_000_000.0 / MEASURED_ROUNDS,
+            allocated / (1024.0 * 1024.0) / MEASURED_ROUNDS
+        );
+    }
+
+    private record Measurement(double millisPerOp, double megabytesPerOp) {
+    }
+}
@@ -0,0 +1,244 @@
+package com.projedata.inventory.integration;
+
+import com.projedata.inventory.repository.ProductRawMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import com.projedata.inventory.service.ProductionPlanModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the HTTP API with concurrent clients: a group keeps the optimal planner busy while another issues CRUD
+ * reads, and throughput plus p50/p99 latency are reported per endpoint. Run it once per thread mode and compare:
+ * <pre>
+ * mvn test -Dtest=ThreadModeBenchmarkTest -Dbenchmark=true -Dspring.threads.virtual.enabled=false
+ * mvn test -Dtest=ThreadModeBenchmarkTest -Dbenchmark=true -Dspring.threads.virtual.enabled=true
+ * </pre>
+ * Client counts and duration can be changed with {@code -Dbenchmark.planClients}, {@code -Dbenchmark.crudClients}
+ * and {@code -Dbenchmark.seconds}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ThreadModeBenchmarkTest {
+
+    private static final int PRODUCTS = 300;
+    private static final int RAW_MATERIALS = 40;
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+
+    @SuppressWarnings("resource") // falso positivo: container is managed by Testcontainers lifecycle
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+        .withDatabaseName("projedata")
+        .withUsername("projedata")
+        .withPassword("projedata");
+
+    @DynamicPropertySource
+    static void configureDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductionPlanModel productionPlanModel;
+
+    @AfterEach
+    void cleanDatabase() {
+        productRawMaterialRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        rawMaterialRepository.deleteAllInBatch();
+        productionPlanModel.invalidate();
+    }
+
+    @Test
+    void shouldReportThroughputAndTailLatencyPerEndpoint() throws Exception {
+        seedCatalog();
+        Long rawMaterialId = jdbcTemplate.queryForObject("SELECT min(id) FROM raw_materials", Long.class);
+
+        int planClients = Integer.getInteger("benchmark.planClients", 250);
+        int crudClients = Integer.getInteger("benchmark.crudClients", 50);
+        Duration measured = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 15));
+
+        Map<String, String> endpoints = Map.of(
+            "plan", "/api/production-plan/suggestions?strategy=optimal&timeBudgetMs=200",
+            "list", "/api/products?limit=50",
+            "lookup", "/api/raw-materials/" + rawMaterialId
+        );
+        Map<String, Samples> samples = new ConcurrentHashMap<>();
+        endpoints.keySet().forEach(name -> samples.put(name, new Samples()));
+        AtomicInteger failures = new AtomicInteger();
+
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + measured.toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < planClients; i++) {
+                running.add(clients.submit(() -> drive(client, List.of("plan"), endpoints, samples, failures, measureFrom, measureUntil)));
+            }
+            for (int i = 0; i < crudClients; i++) {
+                running.add(clients.submit(() -> drive(client, List.of("list", "lookup"), endpoints, samples, failures, measureFrom, measureUntil)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+
+        System.out.printf("thread mode: %s | %d plan clients, %d CRUD clients, %ds%n",
+            virtualThreads ? "virtual" : "platform", planClients, crudClients, measured.toSeconds());
+        for (String name : List.of("plan", "list", "lookup")) {
+            long[] latencies = samples.get(name).sorted();
+            System.out.printf("  %-6s %8.1f req/s | p50 %8.1f ms | p99 %8.1f ms | %d requests%n",
+                name,
+                latencies.length / (double) measured.toSeconds(),
+                percentile(latencies, 0.50) / 1_000_000.0,
+                percentile(latencies, 0.99) / 1_000_000.0,
+                latencies.length
+            );
+        }
+
+        assertThat(failures.get()).isZero();
+        if (planClients > 0) {
+            assertThat(samples.get("plan").sorted()).isNotEmpty();
+        }
+        if (crudClients > 0) {
+            assertThat(samples.get("list").sorted()).isNotEmpty();
+            assertThat(samples.get("lookup").sorted()).isNotEmpty();
+        }
+    }
+
+    private void drive(
+        HttpClient client,
+        List<String> names,
+        Map<String, String> endpoints,
+        Map<String, Samples> samples,
+        AtomicInteger failures,
+        long measureFrom,
+        long measureUntil
+    ) {
+        int next = 0;
+        while (System.nanoTime() < measureUntil) {
+            String name = names.get(next++ % names.size());
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + endpoints.get(name)))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+            } catch (Exception ex) {
+                failures.incrementAndGet();
+            }
+            long finished = System.nanoTime();
+            if (started >= measureFrom && finished <= measureUntil) {
+                samples.get(name).add(finished - started);
+            }
+        }
+    }
+
+    private void seedCatalog() {
+        jdbcTemplate.execute("SELECT setseed(0.42)");
+        jdbcTemplate.update("""
+            INSERT INTO raw_materials (code, name, stock_quantity)
+            SELECT 'BENCH-RM-' || LPAD(g::text, 4, '0'), 'Materia ' || g, 500 + (g * 37) % 400
+            FROM generate_series(1, ?) g
+            """, RAW_MATERIALS);
+        jdbcTemplate.update("""
+            INSERT INTO products (code, name, value)
+            SELECT 'BENCH-P-' || LPAD(g::text, 4, '0'), 'Produto ' || g, 10 + (g * 53) % 90
+            FROM generate_series(1, ?) g
+            """, PRODUCTS);
+        jdbcTemplate.update("""
+            INSERT INTO product_raw_materials (product_id, raw_material_id, required_quantity)
+            SELECT p.id, r.id, 1 + floor(random() * 9)
+            FROM products p
+            CROSS JOIN LATERAL (
+                SELECT id FROM raw_materials ORDER BY random() + p.id * 0 LIMIT 4
+            ) r
+            """);
+        productionPlanModel.invalidate();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static final class Samples {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        synchronized void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.service.CompiledPlan.CompositionEntry;
+import com.projedata.inventory.service.CompiledPlan.ProductEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BranchAndBoundSolverTest {
+
+    @Test
+    void shouldFindTheSameOptimumAsExhaustiveSearchOnSmallCatalogs() {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 60; round++) {
+            List<ProductEntry> products = new ArrayList<>();
+            Map<Long, BigDecimal> stock = new HashMap<>();
+            List<CompositionEntry> compositions = new ArrayList<>();
+
+            int materialCount = 1 + random.nextInt(3);
+            for (long id = 1; id <= materialCount; id++) {
+                stock.put(id, BigDecimal.valueOf(5 + random.nextInt(25)));
+            }
+            long compositionId = 1;
+            int productCount = 1 + random.nextInt(4);
+            for (long id = 1; id <= productCount; id++) {
+                products.add(new ProductEntry(id, "PRD-" + id, "Produto " + id, BigDecimal.valueOf(10 + random.nextInt(90))));
+                for (long material = 1; material <= materialCount; material++) {
+                    if (material == 1 || random.nextBoolean()) {
+                        compositions.add(new CompositionEntry(compositionId++, id, material, null,
+                            BigDecimal.valueOf(1 + random.nextInt(9))));
+                    }
+                }
+            }
+
+            CompiledPlan plan = CompiledPlan.compile(products, stock, compositions);
+            BranchAndBoundSolver.Solution solution = BranchAndBoundSolver.solve(
+                plan, plan.stockVector(), ForkJoinPool.commonPool(), System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+
+            assertThat(solution.complete()).isTrue();
+            assertThat(fits(plan, solution.quantities())).isTrue();
+            assertThat(value(plan, solution.quantities()))
+                .as("round %d", round)
+                .isEqualTo(exhaustiveOptimum(plan, 0, plan.stockVector()));
+        }
+    }
+
+    @Test
+    void shouldReturnTheGreedyPlanAndAnOpenBoundWhenTheDeadlineHasPassed() {
+        CompiledPlan plan = CompiledPlan.compile(
+            List.of(
+                new ProductEntry(1L, "PRD-A", "Produto A", new BigDecimal("100.00")),
+                new ProductEntry(2L, "PRD-B", "Produto B", new BigDecimal("60.00"))
+            ),
+            Map.of(11L, new BigDecimal("10.000")),
+            List.of(
+                new CompositionEntry(1L, 1L, 11L, null, new BigDecimal("6.000")),
+                new CompositionEntry(2L, 2L, 11L, null, new BigDecimal("5.000"))
+            )
+        );
+
+        BranchAndBoundSolver.Solution solution = BranchAndBoundSolver.solve(
+            plan, plan.stockVector(), ForkJoinPool.commonPool(), System.nanoTime() - 1);
+
+        assertThat(solution.complete()).isFalse();
+        assertThat(solution.quantities()).containsExactly(1L, 0L);
+        assertThat(solution.upperBound()).isGreaterThan(solution.value());
+    }
+
+    private long exhaustiveOptimum(CompiledPlan plan, int product, long[] stock) {
+        if (product == plan.productCount()) {
+            return 0;
+        }
+        long best = 0;
+        long[] remaining = stock.clone();
+        for (long quantity = 0; ; quantity++) {
+            long value = quantity * plan.product(product).value().longValueExact()
+                + exhaustiveOptimum(plan, product + 1, remaining);
+            best = Math.max(best, value);
+
+            boolean fitsOneMore = plan.compositionStart(product) < plan.compositionEnd(product);
+            for (int line = plan.compositionStart(product); line < plan.compositionEnd(product); line++) {
+                fitsOneMore &= remaining[plan.compositionMaterial(line)] >= plan.compositionRequired(line);
+            }
+            if (!fitsOneMore) {
+                return best;
+            }
+            for (int line = plan.compositionStart(product); line < plan.compositionEnd(product); line++) {
+                remaining[plan.compositionMaterial(line)] -= plan.compositionRequired(line);
+            }
+        }
+    }
+
+    private boolean fits(CompiledPlan plan, long[] quantities) {
+        long[] remaining = plan.stockVector();
+        for (int product = 0; product < plan.productCount(); product++) {
+            for (int line = plan.compositionStart(product); line < plan.compositionEnd(product); line++) {
+                remaining[plan.compositionMaterial(line)] -= quantities[product] * plan.compositionRequired(line);
+            }
+        }
+        for (long left : remaining) {
+            if (left < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long value(CompiledPlan plan, long[] quantities) {
+        long total = 0;
+        for (int product = 0; product < plan.productCount(); product++) {
+            total += quantities[product] * plan.product(product).value().longValueExact();
+        }
+        return total;
+    }
+}
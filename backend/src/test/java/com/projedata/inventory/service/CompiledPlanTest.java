@@ -0,0 +1,274 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.service.CompiledPlan.CompositionEntry;
+import com.projedata.inventory.service.CompiledPlan.ProductEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompiledPlanTest {
+
+    @Test
+    void shouldMatchBigDecimalGreedyOnRandomCatalogs() {
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            List<ProductEntry> products = new ArrayList<>();
+            Map<Long, BigDecimal> stock = new HashMap<>();
+            List<CompositionEntry> compositions = new ArrayList<>();
+
+            int materialCount = 1 + random.nextInt(8);
+            for (long id = 1; id <= materialCount; id++) {
+                stock.put(id, BigDecimal.valueOf(random.nextInt(5_000_000), 3));
+            }
+
+            long compositionId = 1;
+            int productCount = 1 + random.nextInt(15);
+            for (long id = 1; id <= productCount; id++) {
+                products.add(new ProductEntry(id, "PRD-%02d".formatted(id), "Produto " + id,
+                    BigDecimal.valueOf(1 + random.nextInt(50), 0).multiply(BigDecimal.TEN)));
+                for (long material = 1; material <= materialCount; material++) {
+                    if (random.nextInt(3) == 0) {
+                        compositions.add(new CompositionEntry(compositionId++, id, material, null,
+                            BigDecimal.valueOf(1 + random.nextInt(20_000), 3)));
+                    }
+                }
+            }
+
+            CompiledPlan plan = CompiledPlan.compile(products, stock, compositions);
+            long[] quantities = plan.allocateGreedy(plan.stockVector());
+
+            Map<Long, Long> expected = referenceGreedy(products, stock, compositions);
+            for (int index = 0; index < plan.productCount(); index++) {
+                assertThat(quantities[index])
+                    .as("round %d product %s", round, plan.product(index).code())
+                    .isEqualTo(expected.getOrDefault(plan.product(index).id(), 0L));
+            }
+        }
+    }
+
+    @Test
+    void shouldReuseStructureWhenOnlyStockChanges() {
+        CompiledPlan plan = CompiledPlan.compile(
+            List.of(new ProductEntry(1L, "PRD-A", "Produto A", new BigDecimal("10.00"))),
+            Map.of(11L, new BigDecimal("5.000")),
+            List.of(new CompositionEntry(101L, 1L, 11L, null, new BigDecimal("2.000")))
+        );
+
+        CompiledPlan restocked = plan.withStock(Map.of(11L, new BigDecimal("9.000")));
+
+        assertThat(restocked).isNotNull();
+        assertThat(restocked.allocateGreedy(restocked.stockVector())).containsExactly(4L);
+        assertThat(plan.withStock(Map.of(12L, BigDecimal.ONE))).isNull();
+    }
+
+    @Test
+    void shouldRejectQuantitiesOutsideTheFixedPointRange() {
+        assertThatThrownBy(() -> CompiledPlan.compile(
+            List.of(new ProductEntry(1L, "PRD-A", "Produto A", BigDecimal.TEN)),
+            Map.of(11L, new BigDecimal("1e20")),
+            List.of()
+        ))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("stock of raw material 11");
+    }
+
+    @Test
+    void shouldExplodeNestedComponentsIntoRawMaterials() {
+        CompiledPlan plan = CompiledPlan.compile(
+            List.of(
+                new ProductEntry(1L, "PRD-TOP", "Montagem", new BigDecimal("100.00")),
+                new ProductEntry(2L, "PRD-SUB", "Submontagem", new BigDecimal("5.00")),
+                new ProductEntry(3L, "PRD-PART", "Peca", new BigDecimal("1.00"))
+            ),
+            Map.of(11L, new BigDecimal("1.000"), 12L, new BigDecimal("20.000")),
+            List.of(
+                new CompositionEntry(101L, 1L, null, 2L, new BigDecimal("0.500")),
+                new CompositionEntry(102L, 1L, 12L, null, new BigDecimal("1.000")),
+                new CompositionEntry(103L, 2L, null, 3L, new BigDecimal("1.000")),
+                new CompositionEntry(104L, 3L, 11L, null, new BigDecimal("0.333"))
+            )
+        );
+
+        assertThat(plan.quantityScale()).isEqualTo(4);
+        assertThat(plan.toScaled(new BigDecimal("1.5"), "test")).isEqualTo(15_000L);
+        assertThat(plan.allocateGreedy(plan.stockVector())).containsExactly(6L, 0L, 0L);
+    }
+
+    @Test
+    void shouldCapTheScaleOfDeeplyNestedRequirementsAndRoundThemUp() {
+        CompiledPlan plan = CompiledPlan.compile(
+            List.of(
+                new ProductEntry(1L, "PRD-L1", "Nivel 1", new BigDecimal("40.00")),
+                new ProductEntry(2L, "PRD-L2", "Nivel 2", new BigDecimal("30.00")),
+                new ProductEntry(3L, "PRD-L3", "Nivel 3", new BigDecimal("20.00")),
+                new ProductEntry(4L, "PRD-L4", "Nivel 4", new BigDecimal("10.00"))
+            ),
+            Map.of(11L, new BigDecimal("10.041"), 12L, new BigDecimal("10000000.000")),
+            List.of(
+                new CompositionEntry(101L, 1L, null, 2L, new BigDecimal("1.001")),
+                new CompositionEntry(102L, 2L, null, 3L, new BigDecimal("1.001")),
+                new CompositionEntry(103L, 3L, null, 4L, new BigDecimal("1.001")),
+                new CompositionEntry(104L, 4L, 11L, null, new BigDecimal("1.001"))
+            )
+        );
+
+        assertThat(plan.quantityScale()).isEqualTo(CompiledPlan.MAX_QUANTITY_SCALE);
+        assertThat(plan.fromScaled(plan.compositionRequired(plan.compositionStart(0)))).isEqualByComparingTo("1.004007");
+        assertThat(plan.allocateGreedy(plan.stockVector())).containsExactly(10L, 0L, 0L, 0L);
+        assertThat(plan.withStock(Map.of(12L, new BigDecimal("99999999999.999")))).isNotNull();
+    }
+
+    @Test
+    void shouldMultiplyTargetQuantitiesThroughTheExplodedBillOfMaterials() {
+        CompiledPlan plan = CompiledPlan.compile(
+            List.of(
+                new ProductEntry(1L, "PRD-TOP", "Montagem", new BigDecimal("100.00")),
+                new ProductEntry(2L, "PRD-SUB", "Submontagem", new BigDecimal("5.00")),
+                new ProductEntry(3L, "PRD-PART", "Peca", new BigDecimal("1.00"))
+            ),
+            Map.of(11L, new BigDecimal("1.000"), 12L, new BigDecimal("20.000")),
+            List.of(
+                new CompositionEntry(101L, 1L, null, 2L, new BigDecimal("0.500")),
+                new CompositionEntry(102L, 1L, 12L, null, new BigDecimal("1.000")),
+                new CompositionEntry(103L, 2L, null, 3L, new BigDecimal("1.000")),
+                new CompositionEntry(104L, 3L, 11L, null, new BigDecimal("0.333"))
+            )
+        );
+
+        long[] required = plan.requirements(new long[]{2, 0, 3});
+
+        assertThat(plan.fromScaled(required[plan.rawMaterialIndex(11L)])).isEqualByComparingTo("1.332");
+        assertThat(plan.fromScaled(required[plan.rawMaterialIndex(12L)])).isEqualByComparingTo("2");
+        assertThatThrownBy(() -> plan.requirements(new long[]{Long.MAX_VALUE, 0, 0}))
+            .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldIndexWhereEachRawMaterialIsUsed() {
+        CompiledPlan plan = CompiledPlan.compile(
+            List.of(
+                new ProductEntry(1L, "PRD-TOP", "Montagem", new BigDecimal("100.00")),
+                new ProductEntry(2L, "PRD-SUB", "Submontagem", new BigDecimal("5.00")),
+                new ProductEntry(3L, "PRD-PART", "Peca", new BigDecimal("1.00"))
+            ),
+            Map.of(11L, new BigDecimal("1.000"), 12L, new BigDecimal("20.000"), 13L, BigDecimal.TEN),
+            List.of(
+                new CompositionEntry(101L, 1L, null, 2L, new BigDecimal("0.500")),
+                new CompositionEntry(102L, 1L, 12L, null, new BigDecimal("1.000")),
+                new CompositionEntry(103L, 2L, null, 3L, new BigDecimal("1.000")),
+                new CompositionEntry(104L, 3L, 11L, null, new BigDecimal("0.333"))
+            )
+        );
+
+        int shared = plan.rawMaterialIndex(11L);
+        List<Long> usedBy = new ArrayList<>();
+        List<BigDecimal> required = new ArrayList<>();
+        for (int usage = plan.usageStart(shared); usage < plan.usageEnd(shared); usage++) {
+            usedBy.add(plan.product(plan.usageProduct(usage)).id());
+            required.add(plan.fromScaled(plan.compositionRequired(plan.usageLine(usage))).stripTrailingZeros());
+        }
+        assertThat(usedBy).containsExactly(1L, 2L, 3L);
+        assertThat(required).containsExactly(new BigDecimal("0.1665"), new BigDecimal("0.333"), new BigDecimal("0.333"));
+
+        int direct = plan.rawMaterialIndex(12L);
+        assertThat(plan.usageEnd(direct) - plan.usageStart(direct)).isEqualTo(1);
+        assertThat(plan.usageProduct(plan.usageStart(direct))).isZero();
+        int unused = plan.rawMaterialIndex(13L);
+        assertThat(plan.usageEnd(unused)).isEqualTo(plan.usageStart(unused));
+
+        long[] stock = plan.stockVector();
+        assertThat(plan.buildable(0, stock)).isEqualTo(6L);
+        assertThat(plan.buildable(1, stock)).isEqualTo(3L);
+        stock[shared] = plan.toScaled(new BigDecimal("10"), "test");
+        assertThat(plan.buildable(0, stock)).isEqualTo(20L);
+
+        CompiledPlan restocked = plan.withStock(Map.of(11L, BigDecimal.TEN, 12L, BigDecimal.ONE, 13L, BigDecimal.ONE));
+        assertThat(restocked.usageEnd(shared) - restocked.usageStart(shared)).isEqualTo(3);
+        assertThat(restocked.buildable(0, restocked.stockVector())).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldSkipProductsWhoseComponentsCannotBePlanned() {
+        CompiledPlan plan = CompiledPlan.compile(
+            List.of(
+                new ProductEntry(1L, "PRD-TOP", "Montagem", new BigDecimal("100.00")),
+                new ProductEntry(2L, "PRD-EMPTY", "Sem composicao", new BigDecimal("5.00"))
+            ),
+            Map.of(11L, new BigDecimal("10.000")),
+            List.of(
+                new CompositionEntry(101L, 1L, null, 2L, new BigDecimal("1.000")),
+                new CompositionEntry(102L, 1L, 11L, null, new BigDecimal("1.000"))
+            )
+        );
+
+        assertThat(plan.allocateGreedy(plan.stockVector())).containsExactly(0L, 0L);
+    }
+
+    @Test
+    void shouldRejectCyclicCompositions() {
+        assertThatThrownBy(() -> CompiledPlan.compile(
+            List.of(
+                new ProductEntry(1L, "PRD-A", "Produto A", BigDecimal.TEN),
+                new ProductEntry(2L, "PRD-B", "Produto B", BigDecimal.ONE)
+            ),
+            Map.of(11L, BigDecimal.TEN),
+            List.of(
+                new CompositionEntry(101L, 1L, null, 2L, BigDecimal.ONE),
+                new CompositionEntry(102L, 2L, null, 1L, BigDecimal.ONE),
+                new CompositionEntry(103L, 2L, 11L, null, BigDecimal.ONE)
+            )
+        ))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("cycle");
+    }
+
+    private Map<Long, Long> referenceGreedy(
+        List<ProductEntry> products,
+        Map<Long, BigDecimal> stock,
+        List<CompositionEntry> compositions
+    ) {
+        Map<Long, BigDecimal> virtualStock = new HashMap<>(stock);
+        Map<Long, Long> quantities = new HashMap<>();
+
+        List<ProductEntry> ordered = new ArrayList<>(products);
+        ordered.sort((a, b) -> {
+            int byValue = b.value().compareTo(a.value());
+            return byValue != 0 ? byValue : a.code().compareTo(b.code());
+        });
+
+        for (ProductEntry product : ordered) {
+            List<CompositionEntry> lines = compositions.stream()
+                .filter(line -> line.productId().equals(product.id()))
+                .toList();
+            if (lines.isEmpty()) {
+                continue;
+            }
+
+            long max = Long.MAX_VALUE;
+            for (CompositionEntry line : lines) {
+                BigDecimal available = virtualStock.getOrDefault(line.rawMaterialId(), BigDecimal.ZERO);
+                max = Math.min(max, available.divide(line.requiredQuantity(), 0, RoundingMode.DOWN).longValue());
+            }
+            if (max <= 0) {
+                continue;
+            }
+
+            quantities.put(product.id(), max);
+            for (CompositionEntry line : lines) {
+                BigDecimal consumed = line.requiredQuantity().multiply(BigDecimal.valueOf(max));
+                virtualStock.merge(line.rawMaterialId(), consumed.negate(), BigDecimal::add);
+            }
+        }
+        return quantities;
+    }
+}
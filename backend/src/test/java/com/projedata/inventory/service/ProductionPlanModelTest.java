@@ -0,0 +1,148 @@
+package com.projedata.inventory.service;
+
+import com.projedata.inventory.entity.Product;
+import com.projedata.inventory.entity.ProductRawMaterial;
+import com.projedata.inventory.entity.RawMaterial;
+import com.projedata.inventory.repository.ProductRawMaterialRepository;
+import com.projedata.inventory.repository.ProductRepository;
+import com.projedata.inventory.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductionPlanModelTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    private ProductionPlanModel productionPlanModel;
+
+    private Product gear;
+    private RawMaterial steel;
+
+    @BeforeEach
+    void setUp() {
+        productionPlanModel = new ProductionPlanModel(
+            productRepository,
+            rawMaterialRepository,
+            productRawMaterialRepository,
+            new PlanningMetrics(new SimpleMeterRegistry())
+        );
+
+        gear = product(1L, "PRD-GEAR", "Engrenagem", "40.00");
+        steel = rawMaterial(11L, "RM-STEEL", "Aco", "10.000");
+
+        when(productRepository.findAllByOrderByValueDescCodeAsc()).thenReturn(List.of(gear));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel));
+        when(productRawMaterialRepository.findByProductIdIn(List.of(1L)))
+            .thenReturn(List.of(composition(101L, gear, steel, "2.000")));
+    }
+
+    @Test
+    void shouldLoadCatalogOnceAndReuseItWhileNothingChanges() {
+        CompiledPlan first = productionPlanModel.snapshot();
+        CompiledPlan second = productionPlanModel.snapshot();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.productCount()).isEqualTo(1);
+        assertThat(first.compositionEnd(0) - first.compositionStart(0)).isEqualTo(1);
+        verify(productRepository, times(1)).findAllByOrderByValueDescCodeAsc();
+        verify(rawMaterialRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldRereadOnlyChangedRawMaterials() {
+        productionPlanModel.snapshot();
+
+        when(rawMaterialRepository.findAllById(Set.of(11L)))
+            .thenReturn(List.of(rawMaterial(11L, "RM-STEEL", "Aco", "4.000")));
+        productionPlanModel.rawMaterialChanged(11L);
+
+        CompiledPlan plan = productionPlanModel.snapshot();
+
+        assertThat(plan.stockVector()[plan.rawMaterialIndex(11L)]).isEqualTo(4_000L);
+        verify(rawMaterialRepository, times(1)).findAll();
+        verify(rawMaterialRepository).findAllById(Set.of(11L));
+        verifyNoMoreInteractions(rawMaterialRepository);
+    }
+
+    @Test
+    void shouldApplyProductAndCompositionDeltasAndKeepPlanningOrder() {
+        productionPlanModel.snapshot();
+
+        Product bolt = product(2L, "PRD-BOLT", "Parafuso", "90.00");
+        when(productRepository.findAllById(Set.of(2L))).thenReturn(List.of(bolt));
+        when(productRawMaterialRepository.findAllById(Set.of(101L, 102L)))
+            .thenReturn(List.of(composition(102L, bolt, steel, "1.000")));
+
+        productionPlanModel.productChanged(2L);
+        productionPlanModel.compositionChanged(101L);
+        productionPlanModel.compositionChanged(102L);
+
+        CompiledPlan plan = productionPlanModel.snapshot();
+
+        assertThat(plan.productCount()).isEqualTo(2);
+        assertThat(plan.product(0).code()).isEqualTo("PRD-BOLT");
+        assertThat(plan.product(1).code()).isEqualTo("PRD-GEAR");
+        assertThat(plan.compositionEnd(0) - plan.compositionStart(0)).isEqualTo(1);
+        assertThat(plan.compositionEnd(1) - plan.compositionStart(1)).isZero();
+    }
+
+    @Test
+    void shouldReloadEverythingAfterInvalidation() {
+        productionPlanModel.snapshot();
+
+        productionPlanModel.invalidate();
+        productionPlanModel.snapshot();
+
+        verify(productRepository, times(2)).findAllByOrderByValueDescCodeAsc();
+        verify(rawMaterialRepository, times(2)).findAll();
+    }
+
+    private Product product(Long id, String code, String name, String value) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(code);
+        product.setName(name);
+        product.setValue(new BigDecimal(value));
+        return product;
+    }
+
+    private RawMaterial rawMaterial(Long id, String code, String name, String stockQuantity) {
+        RawMaterial rawMaterial = new RawMaterial();
+        rawMaterial.setId(id);
+        rawMaterial.setCode(code);
+        rawMaterial.setName(name);
+        rawMaterial.setStockQuantity(new BigDecimal(stockQuantity));
+        return rawMaterial;
+    }
+
+    private ProductRawMaterial composition(Long id, Product product, RawMaterial rawMaterial, String requiredQuantity) {
+        ProductRawMaterial composition = new ProductRawMaterial();
+        composition.setId(id);
+        composition.setProduct(product);
+        composition.setRawMaterial(rawMaterial);
+        composition.setRequiredQuantity(new BigDecimal(requiredQuantity));
+        return composition;
+    }
+}
@@ -1,12 +1,21 @@
 package com.projedata.inventory.service;
 
+import com.projedata.inventory.dto.PlanningStrategy;
+import com.projedata.inventory.dto.ProductionScenario;
+import com.projedata.inventory.dto.ProductionScenarioRequest;
+import com.projedata.inventory.dto.ProductionScenarioResponse;
+import com.projedata.inventory.dto.ProductionSuggestionItem;
 import com.projedata.inventory.dto.ProductionSuggestionResponse;
+import com.projedata.inventory.dto.ProductionSuggestionSummary;
 import com.projedata.inventory.entity.Product;
 import com.projedata.inventory.entity.ProductRawMaterial;
+import com.projedata.inventory.dto.ScenarioStockOverride;
 import com.projedata.inventory.entity.RawMaterial;
+import com.projedata.inventory.exception.BadRequestException;
 import com.projedata.inventory.repository.ProductRawMaterialRepository;
 import com.projedata.inventory.repository.ProductRepository;
 import com.projedata.inventory.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,9 +23,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,11 +47,52 @@ class ProductionPlanServiceTest {
     @Mock
     private ProductRawMaterialRepository productRawMaterialRepository;
 
+    private ProductionPlanModel productionPlanModel;
+
     private ProductionPlanService productionPlanService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
-        productionPlanService = new ProductionPlanService(productRepository, rawMaterialRepository, productRawMaterialRepository);
+        meterRegistry = new SimpleMeterRegistry();
+        PlanningMetrics planningMetrics = new PlanningMetrics(meterRegistry);
+        productionPlanModel = new ProductionPlanModel(
+            productRepository,
+            rawMaterialRepository,
+            productRawMaterialRepository,
+            planningMetrics
+        );
+        productionPlanModel.bindTo(meterRegistry);
+        productionPlanService = new ProductionPlanService(
+            productionPlanModel,
+            new OptimalPlanner(ForkJoinPool.commonPool(), Duration.ofSeconds(5), Duration.ofSeconds(5)),
+            ForkJoinPool.commonPool(),
+            planningMetrics
+        );
+    }
+
+    @Test
+    void shouldRecordPlanningPhasesCacheUsageAndModelSize() {
+        Product product = product(1L, "PRD-M", "Produto M", "10.00");
+        RawMaterial steel = rawMaterial(11L, "RM-STEEL", "Aco", "10.000");
+
+        when(productRepository.findAllByOrderByValueDescCodeAsc()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel));
+        when(productRawMaterialRepository.findByProductIdIn(List.of(1L)))
+            .thenReturn(List.of(composition(101L, product, steel, "2.000")));
+
+        productionPlanService.calculateSuggestions();
+        productionPlanService.calculateSuggestions();
+
+        for (String phase : List.of("load_products", "load_stock", "load_compositions", "compile", "allocate", "map")) {
+            assertThat(meterRegistry.get("planning.phase").tag("phase", phase).timer().count()).as(phase).isEqualTo(1);
+        }
+        assertThat(meterRegistry.get("planning.model.refresh").tag("kind", "full").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("planning.suggestions.cache").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("planning.suggestions.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("planning.catalog.products").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("planning.bom.lines").gauge().value()).isEqualTo(1);
     }
 
     @Test
@@ -114,6 +171,128 @@ class ProductionPlanServiceTest {
         assertThat(response.items().getFirst().subtotalValue()).isEqualByComparingTo("60.00");
     }
 
+    @Test
+    void shouldRecoverValueLeftUnusedByGreedyWhenOptimalStrategyIsRequested() {
+        Product premium = product(1L, "PRD-PREMIUM", "Produto premium", "100.00");
+        Product compact = product(2L, "PRD-COMPACT", "Produto compacto", "60.00");
+        RawMaterial steel = rawMaterial(11L, "RM-STEEL", "Aco", "10.000");
+
+        when(productRepository.findAllByOrderByValueDescCodeAsc()).thenReturn(List.of(premium, compact));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel));
+        when(productRawMaterialRepository.findByProductIdIn(List.of(1L, 2L))).thenReturn(List.of(
+            composition(101L, premium, steel, "6.000"),
+            composition(102L, compact, steel, "5.000")
+        ));
+
+        ProductionSuggestionResponse greedy = productionPlanService.calculateSuggestions();
+        ProductionSuggestionResponse optimal = productionPlanService.calculateSuggestions(PlanningStrategy.OPTIMAL, null);
+
+        assertThat(greedy.totalProductionValue()).isEqualByComparingTo("100.00");
+        assertThat(greedy.optimalityGap()).isNull();
+        assertThat(optimal.strategy()).isEqualTo(PlanningStrategy.OPTIMAL);
+        assertThat(optimal.items()).singleElement().satisfies(item -> {
+            assertThat(item.productCode()).isEqualTo("PRD-COMPACT");
+            assertThat(item.suggestedQuantity()).isEqualTo(2L);
+        });
+        assertThat(optimal.totalProductionValue()).isEqualByComparingTo("120.00");
+        assertThat(optimal.optimalityGap()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void shouldStreamTheSameItemsAndTotalsAsTheMaterializedPlan() {
+        Product highValueProduct = product(1L, "PRD-A", "Produto A", "100.00");
+        Product lowValueProduct = product(2L, "PRD-B", "Produto B", "50.00");
+        RawMaterial steel = rawMaterial(11L, "RM-STEEL", "Aco", "10.000");
+
+        when(productRepository.findAllByOrderByValueDescCodeAsc()).thenReturn(List.of(highValueProduct, lowValueProduct));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel));
+        when(productRawMaterialRepository.findByProductIdIn(List.of(1L, 2L))).thenReturn(List.of(
+            composition(101L, highValueProduct, steel, "4.000"),
+            composition(102L, lowValueProduct, steel, "2.000")
+        ));
+
+        List<ProductionSuggestionItem> streamed = new ArrayList<>();
+        ProductionPlanService.SuggestionStream stream = productionPlanService.suggestionStream(PlanningStrategy.GREEDY, null);
+        ProductionSuggestionSummary summary = stream.writeTo(streamed::add);
+
+        ProductionSuggestionResponse materialized = productionPlanService.calculateSuggestions();
+        assertThat(stream.version()).isEqualTo(productionPlanService.currentDataVersion());
+        assertThat(streamed).isEqualTo(materialized.items());
+        assertThat(summary.itemCount()).isEqualTo(2);
+        assertThat(summary.totalProductionValue()).isEqualByComparingTo(materialized.totalProductionValue());
+        assertThat(summary.strategy()).isEqualTo(PlanningStrategy.GREEDY);
+    }
+
+    @Test
+    void shouldReuseCachedPlanUntilTheDataVersionMoves() {
+        Product product = product(1L, "PRD-LIMIT", "Produto limite", "99.90");
+        RawMaterial resin = rawMaterial(31L, "RM-RESIN", "Resina", "2.000");
+
+        when(productRepository.findAllByOrderByValueDescCodeAsc()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(resin));
+        when(productRawMaterialRepository.findByProductIdIn(List.of(1L)))
+            .thenReturn(List.of(composition(301L, product, resin, "1.000")));
+        when(rawMaterialRepository.findAllById(Set.of(31L)))
+            .thenReturn(List.of(rawMaterial(31L, "RM-RESIN", "Resina", "5.000")));
+
+        ProductionPlanService.VersionedSuggestions first = productionPlanService.greedySuggestions();
+        ProductionPlanService.VersionedSuggestions second = productionPlanService.greedySuggestions();
+
+        productionPlanModel.rawMaterialChanged(31L);
+        ProductionPlanService.VersionedSuggestions third = productionPlanService.greedySuggestions();
+
+        assertThat(second).isSameAs(first);
+        assertThat(third.version()).isNotEqualTo(first.version());
+        assertThat(third.response().items().getFirst().suggestedQuantity()).isEqualTo(5L);
+        verify(rawMaterialRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldEvaluateEachScenarioAgainstItsOwnStockWithoutTouchingTheSnapshot() {
+        Product product = product(1L, "PRD-C", "Produto C", "20.00");
+        RawMaterial rubber = rawMaterial(41L, "RM-RUB", "Borracha", "10.000");
+        RawMaterial pigment = rawMaterial(42L, "RM-PIG", "Pigmento", "3.000");
+
+        when(productRepository.findAllByOrderByValueDescCodeAsc()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(rubber, pigment));
+        when(productRawMaterialRepository.findByProductIdIn(List.of(1L))).thenReturn(List.of(
+            composition(401L, product, rubber, "2.000"),
+            composition(402L, product, pigment, "1.000")
+        ));
+
+        ProductionScenarioResponse response = productionPlanService.evaluateScenarios(new ProductionScenarioRequest(List.of(
+            new ProductionScenario("baseline", List.of()),
+            new ProductionScenario("more pigment", List.of(
+                new ScenarioStockOverride(42L, null, new BigDecimal("2.000"))
+            )),
+            new ProductionScenario("restock both", List.of(
+                new ScenarioStockOverride(41L, new BigDecimal("20.000"), null),
+                new ScenarioStockOverride(42L, new BigDecimal("20.000"), null)
+            ))
+        )));
+
+        assertThat(response.scenarios()).extracting(result -> result.plan().items().getFirst().suggestedQuantity())
+            .containsExactly(3L, 5L, 10L);
+        assertThat(productionPlanService.calculateSuggestions().items().getFirst().suggestedQuantity()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldRejectScenarioThatLeavesNegativeStock() {
+        RawMaterial resin = rawMaterial(31L, "RM-RESIN", "Resina", "0.500");
+
+        when(productRepository.findAllByOrderByValueDescCodeAsc()).thenReturn(List.of());
+        when(rawMaterialRepository.findAll()).thenReturn(List.of(resin));
+        when(productRawMaterialRepository.findByProductIdIn(List.of())).thenReturn(List.of());
+
+        ProductionScenarioRequest request = new ProductionScenarioRequest(List.of(
+            new ProductionScenario("overdraw", List.of(new ScenarioStockOverride(31L, null, new BigDecimal("-1.000"))))
+        ));
+
+        assertThatThrownBy(() -> productionPlanService.evaluateScenarios(request))
+            .isInstanceOf(BadRequestException.class)
+            .hasMessage("Scenario 'overdraw' leaves raw material 31 with negative stock");
+    }
+
     private Product product(Long id, String code, String name, String value) {
         Product product = new Product();
         product.setId(id);
@@ -63,6 +63,51 @@ describe('CompositionDialog', () => {
     expect(onClose).toHaveBeenCalled();
   });
 
+  it('offers edit only for raw material lines', async () => {
+    vi.spyOn(httpClient, 'get').mockResolvedValue(
+      buildAxiosResponse([
+        {
+          id: 10,
+          productId: 1,
+          productCode: 'PRD-1',
+          productName: 'Produto Teste',
+          rawMaterialId: 5,
+          rawMaterialCode: 'RM-1',
+          rawMaterialName: 'Aco',
+          componentProductId: null,
+          componentProductCode: null,
+          componentProductName: null,
+          requiredQuantity: 2,
+        },
+        {
+          id: 11,
+          productId: 1,
+          productCode: 'PRD-1',
+          productName: 'Produto Teste',
+          rawMaterialId: null,
+          rawMaterialCode: null,
+          rawMaterialName: null,
+          componentProductId: 2,
+          componentProductCode: 'PRD-2',
+          componentProductName: 'Subconjunto',
+          requiredQuantity: 1,
+        },
+      ])
+    );
+    renderWithProviders(
+      <CompositionDialog product={mockProduct} onClose={vi.fn()} />,
+      {
+        preloadedState: {
+          rawMaterials: { items: [], loading: false, error: null },
+        },
+      }
+    );
+
+    expect(await screen.findByText('PRD-2 - Subconjunto')).toBeInTheDocument();
+    expect(screen.getAllByRole('button', { name: 'Editar' })).toHaveLength(1);
+    expect(screen.getAllByRole('button', { name: 'Excluir' })).toHaveLength(2);
+  });
+
   it('calls onClose when Escape is pressed', async () => {
     const onClose = vi.fn();
     renderWithProviders(
@@ -34,10 +34,11 @@ export function CompositionDialog({ product, onClose }: CompositionDialogProps)
   const [deleteTarget, setDeleteTarget] = useState<ProductMaterial | null>(null);
 
   const materials = product ? productMaterialsState.itemsByProduct[product.id] ?? [] : [];
+  // the form only edits raw material lines; component product lines can only be removed
   const editingComposition =
     editingCompositionId === null
       ? null
-      : materials.find((item) => item.id === editingCompositionId) ?? null;
+      : materials.find((item) => item.id === editingCompositionId && item.componentProductId === null) ?? null;
 
   useEffect(() => {
     if (product) {
@@ -101,7 +102,7 @@ export function CompositionDialog({ product, onClose }: CompositionDialogProps)
           <CompositionForm
             key={editingComposition?.id ?? 'new'}
             rawMaterials={rawMaterialsState.items}
-            editingRawMaterialId={editingComposition ? String(editingComposition.rawMaterialId) : ''}
+            editingRawMaterialId={editingComposition?.rawMaterialId != null ? String(editingComposition.rawMaterialId) : ''}
             editingQuantity={editingComposition ? String(editingComposition.requiredQuantity) : ''}
             loading={productMaterialsState.loading}
             isEditing={editingComposition !== null}
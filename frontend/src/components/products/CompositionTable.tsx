@@ -26,15 +26,19 @@ export function CompositionTable({ items, loading, onEdit, onDelete }: Compositi
       {items.map((item) => (
         <TableRow key={item.id}>
           <TableCell className="font-medium">
-            {item.rawMaterialCode} - {item.rawMaterialName}
+            {item.componentProductId !== null
+              ? `${item.componentProductCode} - ${item.componentProductName}`
+              : `${item.rawMaterialCode} - ${item.rawMaterialName}`}
           </TableCell>
           <TableCell className="font-mono text-sm">{item.requiredQuantity.toFixed(3)}</TableCell>
           <TableCell>
             <div className="flex gap-1">
-              <Button variant="ghost" size="icon" onClick={() => onEdit(item)}>
-                <Pencil className="h-4 w-4" />
-              </Button>
-              <Button variant="ghost" size="icon" onClick={() => onDelete(item)}>
+              {item.componentProductId === null && (
+                <Button variant="ghost" size="icon" aria-label="Editar" onClick={() => onEdit(item)}>
+                  <Pencil className="h-4 w-4" />
+                </Button>
+              )}
+              <Button variant="ghost" size="icon" aria-label="Excluir" onClick={() => onDelete(item)}>
                 <Trash2 className="h-4 w-4 text-danger-600" />
               </Button>
             </div>
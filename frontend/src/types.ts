@@ -29,9 +29,12 @@ export interface ProductMaterial {
   productId: number;
   productCode: string;
   productName: string;
-  rawMaterialId: number;
-  rawMaterialCode: string;
-  rawMaterialName: string;
+  rawMaterialId: number | null;
+  rawMaterialCode: string | null;
+  rawMaterialName: string | null;
+  componentProductId: number | null;
+  componentProductCode: string | null;
+  componentProductName: string | null;
   requiredQuantity: number;
 }
 